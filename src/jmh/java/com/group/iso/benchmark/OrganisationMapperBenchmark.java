@@ -0,0 +1,42 @@
+package com.group.iso.benchmark;
+
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.mapper.OrganisationMapper;
+import com.group.iso.model.Organisation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrganisationMapperBenchmark {
+
+    private Organisation entity;
+    private OrganisationDto dto;
+
+    @Setup
+    public void setup() {
+        entity = Organisation.builder()
+                .id(1L)
+                .name("aName")
+                .phone("1234567")
+                .address("Street 123, Berlin")
+                .email("info@test.de")
+                .build();
+        dto = OrganisationMapper.toDto(entity);
+    }
+
+    @Benchmark
+    public OrganisationDto toDto() {
+        return OrganisationMapper.toDto(entity);
+    }
+
+    @Benchmark
+    public Organisation toEntity() {
+        return OrganisationMapper.toEntity(dto);
+    }
+}
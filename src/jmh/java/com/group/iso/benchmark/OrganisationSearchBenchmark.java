@@ -0,0 +1,65 @@
+package com.group.iso.benchmark;
+
+import com.group.iso.SpringServerMvnApplication;
+import com.group.iso.configuration.OrganisationSeeder;
+import com.group.iso.controller.OrganisationController;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.PagedResponse;
+import com.group.iso.repository.OrganisationBatchRepository;
+import com.group.iso.repository.OrganisationRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the search endpoint against the postgres configured in the environment with the migrations applied.
+ * <p>
+ * Needs a database, therefore it is excluded from the default run:
+ * {@code ./mvnw -Pjmh verify -DskipTests -Djmh.args="OrganisationSearchBenchmark"}. An empty table is seeded with
+ * {@code rows} organisations first, which takes a few minutes for a million.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrganisationSearchBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"contains", "prefix"})
+    private String match;
+
+    // a frequent, a clustered and a missing term
+    @Param({"smith", "harbor", "zzzq"})
+    private String term;
+
+    private ConfigurableApplicationContext context;
+    private OrganisationController controller;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(SpringServerMvnApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=warn");
+        controller = context.getBean(OrganisationController.class);
+        if (context.getBean(OrganisationRepository.class).count() == 0) {
+            new OrganisationSeeder(context.getBean(OrganisationBatchRepository.class), 1000).seed(rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedResponse<OrganisationDto> search() {
+        return controller.searchOrganisations(term, match, null, 20);
+    }
+}
@@ -0,0 +1,24 @@
+package com.group.iso.benchmark;
+
+import com.group.iso.pagination.OrganisationSort;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrganisationSortBenchmark {
+
+    @Param({"name,asc", "email,desc", "updatedAt,desc;name,asc"})
+    private String sort;
+
+    @Benchmark
+    public Sort parse() {
+        return OrganisationSort.parse(sort);
+    }
+}
@@ -0,0 +1,90 @@
+package com.group.iso.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.PagedResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a page in the formats the api negotiates, the payload sizes with and without gzip are printed by
+ * the setup of every fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedResponseSerializationBenchmark {
+
+    private static final TypeReference<PagedResponse<OrganisationDto>> PAGE = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private PagedResponse<OrganisationDto> page;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = switch (format) {
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        List<OrganisationDto> content = LongStream.range(0, pageSize)
+                .mapToObj(id -> OrganisationDto.builder()
+                        .id(id)
+                        .name("Organisation " + id)
+                        .address("Street " + id + ", 10115 Berlin")
+                        .email("info" + id + "@example.com")
+                        .phone("+49 30 " + id)
+                        .build())
+                .toList();
+        page = PagedResponse.<OrganisationDto>builder()
+                .content(content)
+                .pageNumber(0)
+                .pageSize(pageSize)
+                .totalElements(10L * pageSize)
+                .totalPages(10)
+                .last(false)
+                .build();
+        serialized = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d organisations: %d bytes, %d bytes gzip%n", format, pageSize, serialized.length,
+                gzip(serialized).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PagedResponse<OrganisationDto> deserialize() throws IOException {
+        return objectMapper.readValue(serialized, PAGE);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,9 +1,14 @@
 package com.group.iso;
 
+import com.group.iso.configuration.OrganisationRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(OrganisationRuntimeHints.class)
 public class SpringServerMvnApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,172 @@
+package com.group.iso.batch;
+
+import com.group.iso.dto.OrganisationBatchResult;
+import com.group.iso.dto.OrganisationBatchResult.Status;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.mapper.OrganisationMapper;
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationBatchRepository;
+import com.group.iso.repository.OrganisationRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates organisations in chunks, each chunk costs one query for the name conflicts and the batched inserts.
+ * <p>
+ * Every chunk is committed on its own. If a chunk fails because a concurrent request inserted one of the names in the
+ * meantime, the chunk is retried row by row so only the conflicting organisations are rejected.
+ */
+@Slf4j
+@Component
+public class OrganisationImporter {
+
+    private final OrganisationRepository repository;
+    private final OrganisationBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public OrganisationImporter(OrganisationRepository repository,
+                                OrganisationBatchRepository batchRepository,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                @Value("${organisation.batch.chunk-size:500}") int chunkSize) {
+        this.repository = repository;
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Consumes the given organisations lazily, so a streamed request body is never held in memory as a whole.
+     *
+     * @return one result per organisation in the order they were supplied
+     */
+    public List<OrganisationBatchResult> importAll(Iterator<OrganisationDto> organisations) {
+        List<OrganisationBatchResult> results = new ArrayList<>();
+        Set<String> seenNames = new HashSet<>();
+        List<Pending> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (organisations.hasNext()) {
+            OrganisationDto dto = organisations.next();
+            OrganisationBatchResult rejected = validate(index, dto, seenNames);
+            if (rejected != null) {
+                results.add(rejected);
+            } else {
+                OrganisationBatchResult result = OrganisationBatchResult.builder()
+                        .index(index)
+                        .name(dto.getName())
+                        .build();
+                results.add(result);
+                chunk.add(new Pending(dto, result));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk);
+                    chunk.clear();
+                }
+            }
+            index++;
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk);
+        }
+        return results;
+    }
+
+    private OrganisationBatchResult validate(int index, OrganisationDto dto, Set<String> seenNames) {
+        if (dto == null) {
+            return invalid(index, null, "Organisation must not be null");
+        }
+        Set<ConstraintViolation<OrganisationDto>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return invalid(index, dto.getName(), message);
+        }
+        if (!seenNames.add(dto.getName())) {
+            return OrganisationBatchResult.builder()
+                    .index(index)
+                    .name(dto.getName())
+                    .status(Status.CONFLICT)
+                    .message("Name occurs more than once in the request")
+                    .build();
+        }
+        return null;
+    }
+
+    private void importChunk(List<Pending> chunk) {
+        Set<String> existing = repository.findExistingNames(chunk.stream().map(p -> p.dto().getName()).toList());
+        List<Pending> inserts = new ArrayList<>(chunk.size());
+        for (Pending pending : chunk) {
+            if (existing.contains(pending.dto().getName())) {
+                conflict(pending.result());
+            } else {
+                inserts.add(pending);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> batchRepository.insertAll(toEntities(inserts)));
+            for (int i = 0; i < inserts.size(); i++) {
+                created(inserts.get(i).result(), ids.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch insert of {} organisations failed, retrying row by row", inserts.size(), e);
+            for (Pending pending : inserts) {
+                try {
+                    Long id = batchRepository.insertAll(toEntities(List.of(pending))).get(0);
+                    created(pending.result(), id);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    conflict(pending.result());
+                }
+            }
+        }
+    }
+
+    private static List<Organisation> toEntities(List<Pending> pending) {
+        return pending.stream().map(p -> {
+            Organisation organisation = OrganisationMapper.toEntity(p.dto());
+            // organisations are always created, ids supplied by the client are ignored
+            organisation.setId(null);
+            return organisation;
+        }).toList();
+    }
+
+    private static void created(OrganisationBatchResult result, Long id) {
+        result.setStatus(Status.CREATED);
+        result.setId(id);
+    }
+
+    private static void conflict(OrganisationBatchResult result) {
+        result.setStatus(Status.CONFLICT);
+        result.setMessage("Organisation with this name already exists");
+    }
+
+    private static OrganisationBatchResult invalid(int index, String name, String message) {
+        return OrganisationBatchResult.builder()
+                .index(index)
+                .name(name)
+                .status(Status.INVALID)
+                .message(message)
+                .build();
+    }
+
+    private record Pending(OrganisationDto dto, OrganisationBatchResult result) {
+    }
+}
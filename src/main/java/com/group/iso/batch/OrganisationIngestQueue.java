@@ -0,0 +1,231 @@
+package com.group.iso.batch;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group.iso.cache.OrganisationCache;
+import com.group.iso.dto.OrganisationBatchResult;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.OrganisationIngestStatus;
+import com.group.iso.dto.OrganisationIngestStatus.Status;
+import com.group.iso.repository.OrganisationCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates organisations behind the request, many single creates become a few batches of the
+ * {@link OrganisationImporter} with one transaction each.
+ * <p>
+ * Queued organisations are already validated and their names are unique among the queued ones. A single writer takes
+ * them from the bounded queue and flushes a batch once it is full or the oldest organisation waited for the flush
+ * interval. The outcome is kept per ticket for the status retention. On shutdown the queue is flushed for at most the
+ * shutdown timeout, the writer is interrupted then and the rest dropped.
+ */
+@Slf4j
+@Component
+public class OrganisationIngestQueue {
+
+    private record Ticket(String id, OrganisationDto dto) {
+    }
+
+    private final OrganisationImporter importer;
+    private final OrganisationCache cache;
+    private final OrganisationCounter counter;
+    private final BlockingQueue<Ticket> queue;
+    private final Set<String> queuedNames = ConcurrentHashMap.newKeySet();
+    // pending tickets are bounded by the queue, only written ones may be evicted
+    private final Map<String, OrganisationIngestStatus> pending = new ConcurrentHashMap<>();
+    private final Cache<String, OrganisationIngestStatus> written;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration retryAfter;
+    private final Duration shutdownTimeout;
+    private volatile boolean closed;
+    private volatile boolean aborted;
+    private Thread writer;
+
+    public OrganisationIngestQueue(OrganisationImporter importer,
+                                   OrganisationCache cache,
+                                   OrganisationCounter counter,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${organisation.ingest.capacity:10000}") int capacity,
+                                   @Value("${organisation.ingest.batch-size:500}") int batchSize,
+                                   @Value("${organisation.ingest.flush-interval:200ms}") Duration flushInterval,
+                                   @Value("${organisation.ingest.status-retention:1h}") Duration statusRetention,
+                                   @Value("${organisation.ingest.status-maximum-size:100000}") long statusMaximumSize,
+                                   @Value("${organisation.ingest.retry-after:1s}") Duration retryAfter,
+                                   @Value("${organisation.ingest.shutdown-timeout:10s}") Duration shutdownTimeout) {
+        this.importer = importer;
+        this.cache = cache;
+        this.counter = counter;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryAfter = retryAfter;
+        this.shutdownTimeout = shutdownTimeout;
+        this.written = Caffeine.newBuilder()
+                .maximumSize(statusMaximumSize)
+                .expireAfterWrite(statusRetention)
+                .build();
+        Gauge.builder("organisation.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Organisations waiting to be created")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = Thread.ofVirtual()
+                .name("organisation-ingest")
+                .start(this::write);
+    }
+
+    /**
+     * Flushes the queued organisations, the web server is already stopped so nothing is queued anymore. A database
+     * which does not keep up must not hold the shutdown, the writer is interrupted after the shutdown timeout.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        closed = true;
+        if (writer.join(shutdownTimeout)) {
+            return;
+        }
+        aborted = true;
+        writer.interrupt();
+        List<Ticket> dropped = new ArrayList<>();
+        queue.drainTo(dropped);
+        log.warn("Warteschlange nicht innerhalb von {} geschrieben, {} Organisationen verworfen", shutdownTimeout,
+                dropped.size());
+    }
+
+    /**
+     * Queues a validated organisation.
+     *
+     * @return pending with the ticket, a conflict if an organisation with the name is already queued or empty if the
+     * queue is full
+     */
+    public Optional<OrganisationIngestStatus> submit(OrganisationDto dto) {
+        if (closed) {
+            return Optional.empty();
+        }
+        if (!queuedNames.add(dto.getName())) {
+            return Optional.of(OrganisationIngestStatus.builder()
+                    .status(Status.CONFLICT)
+                    .name(dto.getName())
+                    .message("Organisation with this name is already queued")
+                    .build());
+        }
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), dto);
+        OrganisationIngestStatus status = OrganisationIngestStatus.builder()
+                .ticket(ticket.id())
+                .status(Status.PENDING)
+                .name(dto.getName())
+                .build();
+        pending.put(ticket.id(), status);
+        if (!queue.offer(ticket)) {
+            pending.remove(ticket.id());
+            queuedNames.remove(dto.getName());
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<OrganisationIngestStatus> status(String ticket) {
+        OrganisationIngestStatus status = pending.get(ticket);
+        return Optional.ofNullable(status != null ? status : written.getIfPresent(ticket));
+    }
+
+    /**
+     * @return how long clients should wait before they queue again when the queue is full
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+
+    private void write() {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        try {
+            while (!aborted && (!closed || !queue.isEmpty())) {
+                Ticket first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Ticket next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // the queue is dropped by stop, only the batch being collected is left
+            log.warn("Schreiben der Organisationen abgebrochen, {} Organisationen verworfen", batch.size());
+        }
+    }
+
+    private void flush(List<Ticket> batch) {
+        try {
+            List<OrganisationBatchResult> results = importer.importAll(batch.stream().map(Ticket::dto).iterator());
+            long created = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                OrganisationBatchResult result = results.get(i);
+                written.put(batch.get(i).id(), toStatus(batch.get(i).id(), result));
+                if (result.getStatus() == OrganisationBatchResult.Status.CREATED) {
+                    cache.evictName(result.getName());
+                    created++;
+                }
+            }
+            counter.add(created);
+            log.debug("{} von {} Organisationen angelegt", created, batch.size());
+        } catch (RuntimeException e) {
+            log.warn("{} Organisationen konnten nicht angelegt werden", batch.size(), e);
+            batch.forEach(ticket -> written.put(ticket.id(), OrganisationIngestStatus.builder()
+                    .ticket(ticket.id())
+                    .status(Status.FAILED)
+                    .name(ticket.dto().getName())
+                    .message("Organisation could not be written, it may be queued again")
+                    .build()));
+        } finally {
+            batch.forEach(ticket -> {
+                pending.remove(ticket.id());
+                queuedNames.remove(ticket.dto().getName());
+            });
+        }
+    }
+
+    private static OrganisationIngestStatus toStatus(String ticket, OrganisationBatchResult result) {
+        return OrganisationIngestStatus.builder()
+                .ticket(ticket)
+                .status(Status.valueOf(result.getStatus().name()))
+                .id(result.getId())
+                .name(result.getName())
+                .message(result.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.group.iso.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.replica.ReadRouting;
+import com.group.iso.repository.OrganisationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache in front of the {@link OrganisationRepository} lookups by id and by name.
+ * <p>
+ * Organisations are kept as dtos by id, the names are an index onto the ids. Only existing organisations are cached,
+ * a miss always reaches the database. Writes of this instance evict the affected entries, writes of other instances
+ * become visible at the latest after the configured expiry. Entries evicted within the read-your-writes window are
+ * loaded again from the primary, a lagging replica would otherwise put the old state back for the whole expiry.
+ * <p>
+ * A load running while an organisation is written may have read the old row. Its result is only kept if no eviction
+ * happened since it started, a load by name cannot know the id it will put before it read the row, so the generation
+ * counts the evictions of all keys and a write costs the concurrent loads their put.
+ */
+@Component
+public class OrganisationCache {
+
+    private final OrganisationRepository repository;
+    private final Cache<Long, OrganisationDto> byId;
+    private final Cache<String, Long> idByName;
+    // ids and names evicted within the read-your-writes window
+    private final Cache<Object, Boolean> recentlyWritten;
+    // incremented before every eviction
+    private final AtomicLong generation = new AtomicLong();
+
+    public OrganisationCache(OrganisationRepository repository,
+                             MeterRegistry meterRegistry,
+                             @Value("${organisation.cache.maximum-size:10000}") long maximumSize,
+                             @Value("${organisation.cache.expire-after-write:5m}") Duration expireAfterWrite,
+                             @Value("${organisation.replicas.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        this.repository = repository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idByName = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.recentlyWritten = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "organisation.by-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, idByName, "organisation.id-by-name");
+    }
+
+    // the lookups load outside of the cache on purpose, a loading cache computes inside of a map bin lock which pins
+    // the carrier of a virtual thread for the whole query, concurrent misses of the same key may load twice instead
+
+    public Optional<OrganisationDto> findById(Long id) {
+        OrganisationDto cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(id, () -> repository.findDtoById(id));
+    }
+
+    public Optional<Long> findIdByName(String name) {
+        Long cached = idByName.getIfPresent(name);
+        // the index may outlive the organisation by id, which the eviction of a rename or delete needs to find the name
+        if (cached != null && findById(cached).filter(dto -> name.equals(dto.getName())).isPresent()) {
+            return Optional.of(cached);
+        }
+        if (cached != null) {
+            idByName.asMap().remove(name, cached);
+        }
+        return load(name, () -> repository.findDtoByName(name))
+                .map(OrganisationDto::getId);
+    }
+
+    public boolean existsByName(String name) {
+        return findIdByName(name).isPresent();
+    }
+
+    /**
+     * Evicts the organisation with the given id together with its cached name.
+     */
+    public void evict(Long id) {
+        recentlyWritten.put(id, Boolean.TRUE);
+        generation.incrementAndGet();
+        OrganisationDto cached = byId.asMap().remove(id);
+        if (cached != null) {
+            evictName(cached.getName());
+        }
+    }
+
+    public void evictName(String name) {
+        recentlyWritten.put(name, Boolean.TRUE);
+        generation.incrementAndGet();
+        idByName.invalidate(name);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        idByName.invalidateAll();
+    }
+
+    private Optional<OrganisationDto> load(Object key, Supplier<Optional<OrganisationDto>> query) {
+        long started = generation.get();
+        Optional<OrganisationDto> loaded = recentlyWritten.getIfPresent(key) != null
+                ? ReadRouting.onPrimary(query)
+                : query.get();
+        loaded.ifPresent(dto -> put(dto, started));
+        return loaded;
+    }
+
+    /**
+     * Puts first and checks afterwards, an eviction either happened before the check or removes the entries itself.
+     */
+    private void put(OrganisationDto dto, long started) {
+        byId.put(dto.getId(), dto);
+        idByName.put(dto.getName(), dto.getId());
+        if (generation.get() != started) {
+            byId.asMap().remove(dto.getId(), dto);
+            idByName.asMap().remove(dto.getName(), dto.getId());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.group.iso.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regions of the hibernate second-level cache, bounded caffeine caches behind jcache.
+ * <p>
+ * The organisations and their ids by name are kept like in the {@link OrganisationCache}. Query results are not
+ * cached, the pages and the table version behind the etag of the list would only be invalidated by writes of this
+ * instance through hibernate.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    static final String ORGANISATION_REGION = "organisation";
+    static final String ORGANISATION_BY_NAME_REGION = "organisation-by-name";
+
+    /**
+     * A cache manager of its own per application context, caffeine shares the managers of the same uri.
+     */
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(@Value("${organisation.cache.maximum-size:10000}") long maximumSize,
+                                         @Value("${organisation.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(ORGANISATION_REGION, region(maximumSize, expireAfterWrite));
+        cacheManager.createCache(ORGANISATION_BY_NAME_REGION, region(maximumSize, expireAfterWrite));
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        // hibernate caches immutable entries, copying them on every access would only cost
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
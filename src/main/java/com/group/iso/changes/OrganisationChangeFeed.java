@@ -0,0 +1,146 @@
+package com.group.iso.changes;
+
+import com.group.iso.dto.OrganisationChangeDto;
+import com.group.iso.dto.OrganisationChangeDto.Type;
+import com.group.iso.dto.OrganisationChangesResponse;
+import com.group.iso.mapper.OrganisationMapper;
+import com.group.iso.model.Organisation;
+import com.group.iso.model.OrganisationTombstone;
+import com.group.iso.pagination.OrganisationChangeToken;
+import com.group.iso.replica.ReadRouting;
+import com.group.iso.repository.OrganisationRepository;
+import com.group.iso.repository.OrganisationTombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Changes of the organisations since a token in the order of {@code (changedAt, id)}, updates are read from
+ * {@code updatedAt} of the organisations and deletes from their tombstones. The cost of a read depends on the number of
+ * changes and not on the size of the table.
+ * <p>
+ * The times are taken by the application before the transactions commit, so a change may become visible after a
+ * later one. Changes younger than the settle delay are therefore held back, otherwise a client could move its token
+ * past a change which is committed afterwards.
+ */
+@Slf4j
+@Component
+public class OrganisationChangeFeed {
+
+    private static final Comparator<OrganisationChangeDto> ORDER = Comparator
+            .comparing(OrganisationChangeDto::getChangedAt)
+            .thenComparing(OrganisationChangeDto::getId);
+
+    private final OrganisationRepository repository;
+    private final OrganisationTombstoneRepository tombstoneRepository;
+    private final Duration settleDelay;
+    private final Duration tombstoneRetention;
+
+    public OrganisationChangeFeed(OrganisationRepository repository,
+                                  OrganisationTombstoneRepository tombstoneRepository,
+                                  @Value("${organisation.changes.settle-delay:2s}") Duration settleDelay,
+                                  @Value("${organisation.changes.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.repository = repository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.settleDelay = settleDelay;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Deletes the organisation and leaves a tombstone for the feed in the same transaction.
+     *
+     * @return false if the organisation does not exist
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        if (!repository.removeById(id)) {
+            return false;
+        }
+        tombstoneRepository.insert(id, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        return true;
+    }
+
+    /**
+     * @return whether deletes behind the token may already be purged, the client has to start over without a token
+     */
+    public boolean isExpired(OrganisationChangeToken since) {
+        return since.changedAt().isBefore(LocalDateTime.now().minus(tombstoneRetention));
+    }
+
+    /**
+     * Reads from the primary, on a replica the lag would eat up the settle delay and clients could move their token
+     * past a change which is not replicated yet.
+     *
+     * @param since token of the last change the client received or null to read from the beginning
+     */
+    public OrganisationChangesResponse read(OrganisationChangeToken since, int size) {
+        return ReadRouting.onPrimary(() -> readChanges(since, size));
+    }
+
+    private OrganisationChangesResponse readChanges(OrganisationChangeToken since, int size) {
+        LocalDateTime until = LocalDateTime.now().minus(settleDelay);
+        // one additional change tells whether more changes follow
+        Limit limit = Limit.of(size + 1);
+        // organisations first, an organisation deleted in between is then reported as updated and deleted
+        List<Organisation> organisations = since == null
+                ? repository.findChangedFirst(until, limit)
+                : repository.findChangedAfter(since.changedAt(), since.id(), until, limit);
+        List<OrganisationTombstone> tombstones = since == null
+                ? tombstoneRepository.findDeletedFirst(until, limit)
+                : tombstoneRepository.findDeletedAfter(since.changedAt(), since.id(), until, limit);
+
+        List<OrganisationChangeDto> changes = new ArrayList<>(organisations.size() + tombstones.size());
+        organisations.forEach(organisation -> changes.add(toChange(organisation, since)));
+        tombstones.forEach(tombstone -> changes.add(OrganisationChangeDto.builder()
+                .type(Type.DELETED)
+                .id(tombstone.getId())
+                .changedAt(tombstone.getDeletedAt())
+                .build()));
+        changes.sort(ORDER);
+
+        boolean last = changes.size() <= size;
+        List<OrganisationChangeDto> page = last ? changes : changes.subList(0, size);
+        OrganisationChangeToken next = page.isEmpty() ? since : tokenOf(page.get(page.size() - 1));
+        return OrganisationChangesResponse.builder()
+                .changes(page)
+                .nextToken(next == null ? null : next.encode())
+                .last(last)
+                .build();
+    }
+
+    static OrganisationChangeToken tokenOf(OrganisationChangeDto change) {
+        return new OrganisationChangeToken(change.getChangedAt(), change.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${organisation.changes.purge-interval:1h}")
+    public void purgeTombstones() {
+        int purged = tombstoneRepository.removeDeletedBefore(LocalDateTime.now().minus(tombstoneRetention));
+        if (purged > 0) {
+            log.info("{} Tombstones gelöscht", purged);
+        }
+    }
+
+    private static OrganisationChangeDto toChange(Organisation organisation, OrganisationChangeToken since) {
+        // created behind the token means the client has not seen the organisation before, the id decides like in the
+        // order of the feed because organisations inserted in one batch share their creation time
+        LocalDateTime createdAt = organisation.getCreatedAt();
+        boolean created = since == null || createdAt == null || createdAt.isAfter(since.changedAt())
+                || createdAt.isEqual(since.changedAt()) && organisation.getId() > since.id();
+        return OrganisationChangeDto.builder()
+                .type(created ? Type.CREATED : Type.UPDATED)
+                .id(organisation.getId())
+                .changedAt(organisation.getUpdatedAt())
+                .organisation(OrganisationMapper.toDto(organisation))
+                .build();
+    }
+}
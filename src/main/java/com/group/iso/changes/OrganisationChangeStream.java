@@ -0,0 +1,88 @@
+package com.group.iso.changes;
+
+import com.group.iso.dto.OrganisationChangeDto;
+import com.group.iso.dto.OrganisationChangesResponse;
+import com.group.iso.pagination.OrganisationChangeToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams the change feed as server sent events, the id of every event is the token of the change so a reconnecting
+ * client resumes with its {@code Last-Event-ID}.
+ * <p>
+ * Every subscriber polls the feed on its own virtual thread, which holds a database connection only while reading.
+ * When there are no changes a comment is sent instead, so disconnected clients are noticed with the next poll.
+ */
+@Slf4j
+@Component
+public class OrganisationChangeStream {
+
+    private final OrganisationChangeFeed feed;
+    private final Duration pollInterval;
+    private final Duration timeout;
+    private final int batchSize;
+
+    public OrganisationChangeStream(OrganisationChangeFeed feed,
+                                    @Value("${organisation.changes.poll-interval:1s}") Duration pollInterval,
+                                    @Value("${organisation.changes.stream-timeout:30m}") Duration timeout,
+                                    @Value("${organisation.changes.stream-batch-size:100}") int batchSize) {
+        this.feed = feed;
+        this.pollInterval = pollInterval;
+        this.timeout = timeout;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param since token of the last change the client received or null to stream from the beginning
+     */
+    public SseEmitter subscribe(OrganisationChangeToken since) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+        Thread.ofVirtual()
+                .name("organisation-changes")
+                .start(() -> poll(emitter, open, since));
+        return emitter;
+    }
+
+    private void poll(SseEmitter emitter, AtomicBoolean open, OrganisationChangeToken since) {
+        OrganisationChangeToken token = since;
+        try {
+            while (open.get()) {
+                OrganisationChangesResponse page = feed.read(token, batchSize);
+                for (OrganisationChangeDto change : page.getChanges()) {
+                    token = OrganisationChangeFeed.tokenOf(change);
+                    emitter.send(SseEmitter.event()
+                            .id(token.encode())
+                            .name(change.getType().name().toLowerCase(Locale.ROOT))
+                            .data(change, MediaType.APPLICATION_JSON));
+                }
+                if (page.isLast()) {
+                    if (page.getChanges().isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("idle"));
+                    }
+                    Thread.sleep(pollInterval);
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // the client went away, the emitter is completed by the container
+            log.debug("Change stream closed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (RuntimeException e) {
+            log.warn("Change stream failed", e);
+            emitter.completeWithError(e);
+        }
+    }
+}
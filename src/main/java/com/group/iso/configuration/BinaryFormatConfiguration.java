@@ -0,0 +1,48 @@
+package com.group.iso.configuration;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary alternatives to json for service to service consumers, selected by the {@code Accept} header: Smile
+ * ({@code application/x-jackson-smile}) and CBOR ({@code application/cbor}).
+ * <p>
+ * Spring MVC registers both behind the json converter as soon as the data formats are on the class path, so clients
+ * without a preference keep getting json. The beans replace those converters at the same position and share the
+ * configuration of the json object mapper of spring boot.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * The format depends on the {@code Accept} header, so caches have to keep the responses apart.
+     */
+    @Bean
+    FilterRegistrationBean<Filter> varyAcceptFilter() {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            ((HttpServletResponse) response).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            chain.doFilter(request, response);
+        });
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -1,10 +1,11 @@
 package com.group.iso.configuration;
 
-import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationBatchRepository;
 import com.group.iso.repository.OrganisationRepository;
 import lombok.extern.slf4j.Slf4j;
-import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -12,42 +13,26 @@ import org.springframework.context.annotation.Profile;
 @Slf4j
 @Configuration
 public class LoadDatabase {
+    /**
+     * Only with datafaker on the class path, it is left out of the jar and available to {@code spring-boot:run}.
+     */
     @Bean
     @Profile("dev")
-    CommandLineRunner initDbDev(OrganisationRepository organisationRepository) {
+    @ConditionalOnClass(name = "net.datafaker.Faker")
+    CommandLineRunner initDbDev(OrganisationRepository organisationRepository,
+                                OrganisationBatchRepository organisationBatchRepository,
+                                @Value("${organisation.seed.rows:500}") int rows,
+                                @Value("${organisation.seed.batch-size:1000}") int batchSize) {
         return args -> {
             if (organisationRepository.count() > 0) {
                 log.info("Initialisierung übersprungen – Organisationen existieren bereits.");
                 return;
             }
 
-            Faker faker = new Faker();
+            long start = System.currentTimeMillis();
+            new OrganisationSeeder(organisationBatchRepository, batchSize).seed(rows);
 
-
-            int createdCount = 0;
-
-            for (int i = 0; i < 500; i++) {
-                String name = faker.company().name();
-
-                // Prüfen, ob Organisation mit dem Namen schon existiert
-                if (organisationRepository.findByName(name).isPresent()) {
-                    log.info("Organisation mit Namen '{}' existiert bereits, überspringe.", name);
-                    continue;
-                }
-
-                Organisation organisation = Organisation.builder()
-                        .name(name)
-                        .address(faker.address().fullAddress())
-                        .email(faker.internet().emailAddress())
-                        .phone(faker.phoneNumber().phoneNumber())
-                        .build();
-
-                organisationRepository.save(organisation);
-                createdCount++;
-                log.info("Organisation {} gespeichert: {}", createdCount, name);
-            }
-
-            log.info("{} Organisationen für DEV-Profil erfolgreich eingefügt (ohne Duplikate).", createdCount);
+            log.info("{} Organisationen für DEV-Profil in {} ms erfolgreich eingefügt (ohne Duplikate).", rows, System.currentTimeMillis() - start);
         };
     }
 
@@ -0,0 +1,56 @@
+package com.group.iso.configuration;
+
+import com.group.iso.dto.OrganisationBatchResult;
+import com.group.iso.dto.OrganisationChangeDto;
+import com.group.iso.dto.OrganisationChangesResponse;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.OrganisationIngestStatus;
+import com.group.iso.dto.PagedResponse;
+import com.group.iso.model.Organisation;
+import com.group.iso.model.OrganisationTombstone;
+import com.group.iso.repository.OrganisationTableVersion;
+import com.group.iso.statistics.SqlStatisticsSessionListener;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Reflection the native image cannot find out by itself.
+ * <p>
+ * The dtos are serialized by jackson, also where no controller method returns them like the events of the change
+ * stream, and the queries construct {@link OrganisationDto} and {@link OrganisationTableVersion} through their
+ * constructors. Hibernate accesses the fields of the entities and creates the region factory of the second-level cache,
+ * which takes the caching provider by its name and its defaults from {@code reference.conf}, and a session listener per
+ * session from its class name.
+ */
+public class OrganisationRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] DTOS = {
+            OrganisationDto.class,
+            PagedResponse.class,
+            OrganisationBatchResult.class,
+            OrganisationChangeDto.class,
+            OrganisationChangesResponse.class,
+            OrganisationIngestStatus.class
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), DTOS);
+        hints.reflection()
+                .registerType(OrganisationDto.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .registerType(OrganisationTableVersion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+                .registerType(Organisation.class, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .registerType(OrganisationTombstone.class, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS)
+                .registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(SqlStatisticsSessionListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(TypeReference.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory"),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.resources().registerPattern("reference.conf");
+    }
+}
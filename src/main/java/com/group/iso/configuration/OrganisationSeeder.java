@@ -0,0 +1,71 @@
+package com.group.iso.configuration;
+
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Fills the organisation table with faked data for development and performance tests.
+ * <p>
+ * The organisations are generated in blocks in parallel on all cores, the names are kept unique in memory and every
+ * block is flushed in chunks of the given size as jdbc batches. With {@code reWriteBatchedInserts=true} on the postgres
+ * url the driver turns each batch into multi row inserts.
+ */
+@Slf4j
+public class OrganisationSeeder {
+
+    private static final int BATCHES_PER_BLOCK = 10;
+
+    private final OrganisationBatchRepository batchRepository;
+    private final int batchSize;
+    // faker is not thread safe
+    private final ThreadLocal<Faker> fakers = ThreadLocal.withInitial(Faker::new);
+
+    public OrganisationSeeder(OrganisationBatchRepository batchRepository, int batchSize) {
+        this.batchRepository = batchRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Inserts the given number of organisations with unique names, the table is expected to be empty.
+     */
+    public void seed(int rows) {
+        Set<String> names = ConcurrentHashMap.newKeySet(rows);
+        int blockSize = batchSize * BATCHES_PER_BLOCK;
+        long start = System.nanoTime();
+        for (int offset = 0; offset < rows; offset += blockSize) {
+            int end = Math.min(offset + blockSize, rows);
+            List<Organisation> block = IntStream.range(offset, end)
+                    .parallel()
+                    .mapToObj(index -> generate(index, names))
+                    .toList();
+            for (int from = 0; from < block.size(); from += batchSize) {
+                batchRepository.insertAll(block.subList(from, Math.min(from + batchSize, block.size())));
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            log.info("{}/{} Organisationen eingefügt ({} pro Sekunde)", end, rows, Math.round(end / seconds));
+        }
+    }
+
+    private Organisation generate(int index, Set<String> names) {
+        Faker faker = fakers.get();
+        String generated = faker.company().name();
+        String name = generated;
+        // the faker repeats names soon, the index makes them unique
+        for (int attempt = 0; !names.add(name); attempt++) {
+            name = generated + " " + index + (attempt == 0 ? "" : "-" + attempt);
+        }
+        return Organisation.builder()
+                .name(name)
+                .address(faker.address().fullAddress())
+                .email(faker.internet().emailAddress())
+                .phone(faker.phoneNumber().phoneNumber())
+                .build();
+    }
+}
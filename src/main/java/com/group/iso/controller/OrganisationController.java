@@ -1,69 +1,310 @@
 package com.group.iso.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.group.iso.batch.OrganisationImporter;
+import com.group.iso.batch.OrganisationIngestQueue;
+import com.group.iso.cache.OrganisationCache;
+import com.group.iso.changes.OrganisationChangeFeed;
+import com.group.iso.changes.OrganisationChangeStream;
+import com.group.iso.dto.OrganisationBatchResult;
+import com.group.iso.dto.OrganisationChangesResponse;
 import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.OrganisationIngestStatus;
 import com.group.iso.dto.PagedResponse;
+import com.group.iso.export.OrganisationExporter;
 import com.group.iso.mapper.OrganisationMapper;
+import com.group.iso.metrics.OrganisationMetrics;
 import com.group.iso.model.Organisation;
+import com.group.iso.pagination.OrganisationChangeToken;
+import com.group.iso.pagination.OrganisationCursor;
+import com.group.iso.pagination.OrganisationSort;
+import com.group.iso.repository.OrganisationCounter;
 import com.group.iso.repository.OrganisationRepository;
+import com.group.iso.repository.OrganisationTableVersion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationStrategy;
+import org.springframework.web.accept.HeaderContentNegotiationStrategy;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Function;
 
+/**
+ * The organisation api on spring mvc, the reactive build replaces it by the ReactiveOrganisationController.
+ */
 @RestController
 @RequestMapping("/api/organisations")
-@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Tag(name = "Organisation", description = "API for managing organisations")
 public class OrganisationController {
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final int MIN_CONTAINS_LENGTH = 3;
+    // the accepted media types by preference, for the etag of the format the organisation is written in
+    private static final ContentNegotiationStrategy ACCEPT = new HeaderContentNegotiationStrategy();
+
     private final OrganisationRepository repository;
+    private final OrganisationCounter counter;
+    private final OrganisationCache cache;
+    private final OrganisationImporter importer;
+    private final OrganisationIngestQueue ingestQueue;
+    private final OrganisationExporter exporter;
+    private final ObjectMapper objectMapper;
+    private final OrganisationMetrics metrics;
+    private final OrganisationChangeFeed changeFeed;
+    private final OrganisationChangeStream changeStream;
+    private final int maxPageSize;
+
+    public OrganisationController(OrganisationRepository repository,
+                                  OrganisationCounter counter,
+                                  OrganisationCache cache,
+                                  OrganisationImporter importer,
+                                  OrganisationIngestQueue ingestQueue,
+                                  OrganisationExporter exporter,
+                                  ObjectMapper objectMapper,
+                                  OrganisationMetrics metrics,
+                                  OrganisationChangeFeed changeFeed,
+                                  OrganisationChangeStream changeStream,
+                                  @Value("${organisation.page.max-size:100}") int maxPageSize) {
+        this.repository = repository;
+        this.counter = counter;
+        this.cache = cache;
+        this.importer = importer;
+        this.ingestQueue = ingestQueue;
+        this.exporter = exporter;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.changeFeed = changeFeed;
+        this.changeStream = changeStream;
+        this.maxPageSize = maxPageSize;
+    }
 
     @GetMapping
-    @Operation(summary = "Get all organisations", description = "Returns a paginated list of all organisations")
+    @Operation(summary = "Get all organisations", description = "Returns a paginated list of all organisations, pages with an exact total carry an etag and are answered with 304 if unchanged since If-None-Match")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page returned successfully"),
+            @ApiResponse(responseCode = "304", description = "Page not modified since If-None-Match"),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort or invalid size")
+    })
     public PagedResponse<OrganisationDto> getAllOrganisations(
             @RequestParam(defaultValue = "0") @Parameter(description = "Page number (0-based)") int page,
-            @RequestParam(defaultValue = "10") @Parameter(description = "Page size") int size,
-            @RequestParam(defaultValue = "name,asc") @Parameter(description = "Sorting field and direction, e.g. name,asc or email,desc") String sort) {
+            @RequestParam(defaultValue = "10") @Parameter(description = "Page size, larger sizes are reduced to the maximum") int size,
+            @RequestParam(defaultValue = "name,asc") @Parameter(description = "Sorting fields name, email, updatedAt or id with direction separated by semicolons, e.g. name,asc or updatedAt,desc;name,asc") String sort,
+            @RequestParam(defaultValue = "true") @Parameter(description = "Whether the totals are calculated, false skips the count query") boolean withTotal,
+            @RequestParam(defaultValue = "false") @Parameter(description = "Whether a cached approximation is returned as total instead of counting") boolean approximateTotal,
+            WebRequest request) {
+
+        size = pageSize(size);
+        var pageable = PageRequest.of(page, size, parseSort(sort));
+
+        if (withTotal && !approximateTotal) {
+            // the version counts the organisations anyway, so it replaces the count query and pages with an exact
+            // total get an etag for free, the cheaper variants below skip counting and therefore the etag
+            OrganisationTableVersion version = repository.findTableVersion();
+            if (request.checkNotModified(OrganisationETags.of(version))) {
+                return null;
+            }
+            // content and count are separate repository invocations so each of them gets its own latency metric
+            var pageResult = PageableExecutionUtils.getPage(repository.findPageBy(pageable), pageable, version::count);
+            metrics.recordPage("offset", size, pageResult.getNumberOfElements());
 
-        Sort sortOrder = Sort.by(sort.split(",")[0]);
-        if (sort.toLowerCase().endsWith(",desc")) {
-            sortOrder = sortOrder.descending();
+            return PagedResponse.<OrganisationDto>builder()
+                    .content(pageResult.getContent())
+                    .pageNumber(pageResult.getNumber())
+                    .pageSize(pageResult.getSize())
+                    .totalElements(pageResult.getTotalElements())
+                    .totalPages(pageResult.getTotalPages())
+                    .last(pageResult.isLast())
+                    .build();
         }
-        var pageable = PageRequest.of(page, size, sortOrder);
 
-        var pageResult = repository.findAll(pageable)
-                .map(OrganisationMapper::toDto);
+        // a slice fetches size + 1 rows to determine whether it is the last one, no count query is executed
+        var sliceResult = repository.findSliceBy(pageable);
+        metrics.recordPage("offset", size, sliceResult.getNumberOfElements());
 
-        return PagedResponse.<OrganisationDto>builder()
-                .content(pageResult.getContent())
-                .pageNumber(pageResult.getNumber())
-                .pageSize(pageResult.getSize())
-                .totalElements(pageResult.getTotalElements())
-                .totalPages(pageResult.getTotalPages())
-                .last(pageResult.isLast())
-                .build();
+        var response = PagedResponse.<OrganisationDto>builder()
+                .content(sliceResult.getContent())
+                .pageNumber(sliceResult.getNumber())
+                .pageSize(sliceResult.getSize())
+                .last(sliceResult.isLast());
+        if (withTotal) {
+            long total = approximateTotal(sliceResult);
+            response.totalElements(total)
+                    .totalPages((int) ((total + size - 1) / size));
+        }
+        return response.build();
+    }
+
+    @GetMapping("/keyset")
+    @Operation(summary = "Get organisations by cursor", description = "Returns organisations ordered by name using keyset pagination, no total count is calculated")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, size or direction")
+    })
+    public PagedResponse<OrganisationDto> getOrganisationsByCursor(
+            @RequestParam(required = false) @Parameter(description = "Cursor returned as nextCursor by the previous page, omit for the first page") String cursor,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Page size, larger sizes are reduced to the maximum") int size,
+            @RequestParam(defaultValue = "asc") @Parameter(description = "Direction of the name ordering, asc or desc") String direction) {
+
+        size = pageSize(size);
+        boolean descending = parseDirection(direction);
+        // one additional row tells whether another page follows without counting
+        Limit limit = Limit.of(size + 1);
+
+        List<OrganisationDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = descending ? repository.seekFirstByNameDesc(limit) : repository.seekFirstByNameAsc(limit);
+        } else {
+            OrganisationCursor after = decodeCursor(cursor);
+            rows = descending
+                    ? repository.seekAfterByNameDesc(after.name(), after.id(), limit)
+                    : repository.seekAfterByNameAsc(after.name(), after.id(), limit);
+        }
+        return keysetPage(rows, size, "keyset", OrganisationDto::getName);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search organisations", description = "Returns the organisations whose name, address or email contains the term resp. whose name starts with it, ordered by name using keyset pagination")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Term too short, invalid cursor, size or match")
+    })
+    public PagedResponse<OrganisationDto> searchOrganisations(
+            @RequestParam @Parameter(description = "Search term, case insensitive") String q,
+            @RequestParam(defaultValue = "contains") @Parameter(description = "contains searches name, address and email for the term, prefix only the start of the name") String match,
+            @RequestParam(required = false) @Parameter(description = "Cursor returned as nextCursor by the previous page, omit for the first page") String cursor,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Page size, larger sizes are reduced to the maximum") int size) {
+
+        size = pageSize(size);
+        boolean prefix = parseMatch(match);
+        String term = q.strip().toLowerCase(Locale.ROOT);
+        // the trigram indexes need at least three characters, shorter terms would scan the whole table
+        if (term.isEmpty() || !prefix && term.length() < MIN_CONTAINS_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, prefix
+                    ? "Search term must not be blank"
+                    : "Search term must have at least " + MIN_CONTAINS_LENGTH + " characters");
+        }
+        String pattern = prefix ? escapeLike(term) + '%' : '%' + escapeLike(term) + '%';
+        Limit limit = Limit.of(size + 1);
+
+        List<OrganisationDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = prefix ? repository.searchFirstByNamePrefix(pattern, limit) : repository.searchFirst(pattern, limit);
+        } else {
+            OrganisationCursor after = decodeCursor(cursor);
+            rows = prefix
+                    ? repository.searchAfterByNamePrefix(pattern, after.name(), after.id(), limit)
+                    : repository.searchAfter(pattern, after.name(), after.id(), limit);
+        }
+        // prefix matches are ordered by the lower case name
+        return keysetPage(rows, size, "search", prefix ? dto -> dto.getName().toLowerCase(Locale.ROOT) : OrganisationDto::getName);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get changed organisations", description = "Returns the organisations created, updated or deleted after the token in the order of the changes, poll again with nextToken to receive the following changes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Changes returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid token or size"),
+            @ApiResponse(responseCode = "410", description = "Token expired, deletes behind it are no longer known and the client has to sync again without token")
+    })
+    public OrganisationChangesResponse getChanges(
+            @RequestParam(required = false) @Parameter(description = "nextToken of the previous response, omit to read all organisations") String since,
+            @RequestParam(defaultValue = "100") @Parameter(description = "Maximum number of changes, larger sizes are reduced to the maximum") int size) {
+
+        return changeFeed.read(decodeToken(since), pageSize(size));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream changed organisations", description = "Streams the changes after the token as server sent events named created, updated and deleted, the event id is the token to resume with")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "400", description = "Invalid token"),
+            @ApiResponse(responseCode = "410", description = "Token expired, the client has to sync again without token")
+    })
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) @Parameter(description = "nextToken of a previous response, omit to stream all organisations") String since,
+            @RequestHeader(value = "Last-Event-ID", required = false) @Parameter(description = "Id of the last event received, sent by reconnecting clients and preferred over since") String lastEventId) {
+
+        return changeStream.subscribe(decodeToken(lastEventId == null || lastEventId.isBlank() ? since : lastEventId));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export all organisations", description = "Streams all organisations ordered by id as newline delimited json or csv")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Organisations streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportOrganisations(
+            @RequestParam(defaultValue = "ndjson") @Parameter(description = "Export format, ndjson or csv") String format) {
+
+        if ("csv".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=organisations.csv")
+                    .body(exporter::writeCsv);
+        }
+        if ("ndjson".equalsIgnoreCase(format)) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                    .body(exporter::writeNdjson);
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get organisation by ID", description = "Returns a single organisation by its ID")
+    @Operation(summary = "Get organisation by ID", description = "Returns a single organisation by its ID, 304 if it is unchanged since the version given as If-None-Match or If-Modified-Since")
     public ResponseEntity<OrganisationDto> getOrganisationById(
             @Parameter(description = "ID of the organisation", example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
 
-        return repository.findById(id)
-                .map(OrganisationMapper::toDto)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        Optional<OrganisationDto> organisation = cache.findById(id);
+        if (organisation.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        OrganisationDto dto = organisation.get();
+        // sets the etag and last modified headers, answers with 304 if the client has this version already
+        if (dto.getUpdatedAt() != null
+                && request.checkNotModified(OrganisationETags.of(dto, ACCEPT.resolveMediaTypes(request)),
+                OrganisationETags.lastModified(dto.getUpdatedAt()))) {
+            return null;
+        }
+        return ResponseEntity.ok(dto);
     }
 
     @PostMapping
@@ -74,45 +315,128 @@ public class OrganisationController {
     })
     public ResponseEntity<OrganisationDto> createOrganisation(
             @Valid @RequestBody OrganisationDto dto) {
-        if(repository.existsByName(dto.getName())) {
+        if(cache.existsByName(dto.getName())) {
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
         Organisation entity = OrganisationMapper.toEntity(dto);
         Organisation saved = repository.save(entity);
+        cache.evictName(saved.getName());
+        counter.add(1);
         return ResponseEntity.status(HttpStatus.CREATED).body(OrganisationMapper.toDto(saved));
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create organisations in bulk", description = "Creates all given organisations in batches and reports the outcome per organisation")
+    public List<OrganisationBatchResult> createOrganisations(
+            @RequestBody List<OrganisationDto> dtos) {
+        return importOrganisations(dtos.iterator());
+    }
+
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create organisations in bulk from a stream", description = "Creates the organisations of a newline delimited json stream in batches and reports the outcome per organisation")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Stream processed, see the result per organisation"),
+            @ApiResponse(responseCode = "400", description = "Malformed line, the organisations before it may already be created")
+    })
+    public List<OrganisationBatchResult> createOrganisationsFromStream(InputStream body) throws IOException {
+        try (MappingIterator<OrganisationDto> dtos = objectMapper.readerFor(OrganisationDto.class).readValues(body)) {
+            return importOrganisations(dtos);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed organisation stream", e);
+        } catch (RuntimeException e) {
+            // the mapping iterator wraps parse errors of the following lines into unchecked exceptions
+            if (e instanceof RuntimeJsonMappingException || e.getCause() instanceof JsonProcessingException) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed organisation stream", e);
+            }
+            throw e;
+        }
+    }
+
+    @PostMapping("/ingest")
+    @Operation(summary = "Queue a new organisation", description = "Validates the organisation and creates it later together with others in one batch, the location of the response reports the outcome")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Organisation queued"),
+            @ApiResponse(responseCode = "409", description = "Organisation with this name is already queued"),
+            @ApiResponse(responseCode = "503", description = "Queue full, retry after the given seconds")
+    })
+    public ResponseEntity<OrganisationIngestStatus> ingestOrganisation(
+            @Valid @RequestBody OrganisationDto dto) {
+        Optional<OrganisationIngestStatus> status = ingestQueue.submit(dto);
+        if (status.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ingestQueue.retryAfter().toSeconds())))
+                    .build();
+        }
+        if (status.get().getStatus() == OrganisationIngestStatus.Status.CONFLICT) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(status.get());
+        }
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{ticket}")
+                        .buildAndExpand(status.get().getTicket())
+                        .toUri())
+                .body(status.get());
+    }
+
+    @GetMapping("/ingest/{ticket}")
+    @Operation(summary = "Get the outcome of a queued organisation", description = "Pending until the batch with the organisation was written, afterwards kept for the status retention")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Outcome found"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired ticket")
+    })
+    public ResponseEntity<OrganisationIngestStatus> getIngestStatus(
+            @Parameter(description = "Ticket of the queued organisation")
+            @PathVariable String ticket) {
+        return ingestQueue.status(ticket)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing organisation", description = "Updates organisation data by ID")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Organisation updated successfully"),
             @ApiResponse(responseCode = "409", description = "Another Organisation with that name exists"),
-            @ApiResponse(responseCode = "404", description = "Organisation with this id cannot be found")
+            @ApiResponse(responseCode = "404", description = "Organisation with this id cannot be found"),
+            @ApiResponse(responseCode = "412", description = "Organisation was changed since the version given as If-Match")
     })
     public ResponseEntity<OrganisationDto> updateOrganisation(
             @Parameter(description = "ID of the organisation", example = "1")
             @PathVariable Long id,
-            @Valid @RequestBody OrganisationDto dto) {
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "Etag of the organisation the update is based on") String ifMatch,
+            @Valid @RequestBody OrganisationDto dto,
+            NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
 
-        Optional<Organisation> existing = repository.findById(id);
-        if (existing.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        Optional<Organisation> existingWithName = repository.findByName(dto.getName());
-        if (existingWithName.isPresent() && !existingWithName.get().getId().equals(id)) {
+        boolean conditional = ifMatch != null && !"*".equals(ifMatch.trim());
+        Optional<Organisation> updated;
+        try {
+            if (conditional) {
+                // the row is locked while the version is compared, so no other write can come in between
+                Optional<LocalDateTime> expected = OrganisationETags.parse(ifMatch.trim(), id);
+                updated = expected.isEmpty() ? Optional.empty() : repository.updateByIdAndUpdatedAt(id, expected.get(),
+                        dto.getName(), dto.getAddress(), dto.getEmail(), dto.getPhone());
+            } else {
+                updated = repository.updateById(id, dto.getName(), dto.getAddress(), dto.getEmail(), dto.getPhone());
+            }
+        } catch (DataIntegrityViolationException e) {
+            // the unique constraint on the name
             return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
+        if (updated.isEmpty()) {
+            // only a failed update tells apart a missing organisation from a changed one
+            if (conditional && repository.existsById(id)) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+            return ResponseEntity.notFound().build();
+        }
 
-        Organisation org = existing.get();
-        // Update fields from DTO
-        org.setName(dto.getName());
-        org.setAddress(dto.getAddress());
-        org.setEmail(dto.getEmail());
-        org.setPhone(dto.getPhone());
-
-        Organisation saved = repository.save(org);
-        return ResponseEntity.ok(OrganisationMapper.toDto(saved));
+        cache.evict(id);
+        cache.evictName(dto.getName());
+        OrganisationDto saved = OrganisationMapper.toDto(updated.get());
+        return ResponseEntity.ok()
+                .eTag(OrganisationETags.of(saved, ACCEPT.resolveMediaTypes(request)))
+                .lastModified(OrganisationETags.lastModified(saved.getUpdatedAt()))
+                .body(saved);
     }
 
     @DeleteMapping("/{id}")
@@ -121,11 +445,131 @@ public class OrganisationController {
             @Parameter(description = "ID of the organisation", example = "1")
             @PathVariable Long id) {
 
-        if (!repository.existsById(id)) {
+        // the tombstone reports the delete to the change feed
+        if (!changeFeed.delete(id)) {
             return ResponseEntity.notFound().build();
         }
 
-        repository.deleteById(id);
+        cache.evict(id);
+        counter.add(-1);
         return ResponseEntity.noContent().build();
     }
+
+    private List<OrganisationBatchResult> importOrganisations(Iterator<OrganisationDto> dtos) {
+        List<OrganisationBatchResult> results = importer.importAll(dtos);
+        long created = 0;
+        for (OrganisationBatchResult result : results) {
+            if (result.getStatus() == OrganisationBatchResult.Status.CREATED) {
+                cache.evictName(result.getName());
+                created++;
+            }
+        }
+        counter.add(created);
+        return results;
+    }
+
+    /**
+     * The cached count may lag behind, it is corrected by what the slice itself proves about the total.
+     */
+    private long approximateTotal(Slice<?> slice) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        if (slice.isLast()) {
+            return seen;
+        }
+        return Math.max(counter.approximateCount(), seen + 1);
+    }
+
+    /**
+     * Builds the page out of up to size + 1 rows, the additional row only tells that another page follows.
+     */
+    private PagedResponse<OrganisationDto> keysetPage(List<OrganisationDto> rows, int size, String pagination,
+                                                      Function<OrganisationDto, String> cursorName) {
+        boolean last = rows.size() <= size;
+        List<OrganisationDto> pageRows = last ? rows : rows.subList(0, size);
+        String nextCursor = null;
+        if (!last) {
+            OrganisationDto lastRow = pageRows.get(pageRows.size() - 1);
+            nextCursor = new OrganisationCursor(cursorName.apply(lastRow), lastRow.getId()).encode();
+        }
+        metrics.recordPage(pagination, size, pageRows.size());
+
+        return PagedResponse.<OrganisationDto>builder()
+                .content(pageRows)
+                .pageSize(size)
+                .last(last)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * @return the size reduced to the configured maximum, so a single request cannot fetch the whole table
+     */
+    private int pageSize(int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be greater than zero");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static Sort parseSort(String sort) {
+        try {
+            return OrganisationSort.parse(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private static boolean parseMatch(String match) {
+        if ("prefix".equalsIgnoreCase(match)) {
+            return true;
+        }
+        if ("contains".equalsIgnoreCase(match)) {
+            return false;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported match: " + match);
+    }
+
+    /**
+     * Escapes the wildcards of like with the escape character of the search queries.
+     */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean parseDirection(String direction) {
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported direction: " + direction);
+    }
+
+    /**
+     * @return the token or null if none was given
+     */
+    private OrganisationChangeToken decodeToken(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        OrganisationChangeToken decoded;
+        try {
+            decoded = OrganisationChangeToken.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid token", e);
+        }
+        if (changeFeed.isExpired(decoded)) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Token expired, sync again without token");
+        }
+        return decoded;
+    }
+
+    private static OrganisationCursor decodeCursor(String cursor) {
+        try {
+            return OrganisationCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package com.group.iso.controller;
+
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.repository.OrganisationTableVersion;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Etags and last modified dates derived from the {@code updatedAt} of the organisations.
+ * <p>
+ * The strong etag of an organisation carries its id and {@code updatedAt} in microseconds, the precision stored by the
+ * database, so an {@code If-Match} can be turned back into the version the update is conditional on. The Smile and CBOR
+ * representations of the same version differ in their bytes and get an etag of their own with the format as suffix.
+ */
+final class OrganisationETags {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final String SMILE_SUFFIX = "-smile";
+    private static final String CBOR_SUFFIX = "-cbor";
+
+    private OrganisationETags() {
+    }
+
+    /**
+     * @return the etag of the json representation
+     */
+    static String of(OrganisationDto dto) {
+        return of(dto, "");
+    }
+
+    /**
+     * @param accepted the media types of the {@code Accept} header, the most preferred first
+     * @return the etag of the representation the message converters select for the accepted media types
+     */
+    static String of(OrganisationDto dto, List<MediaType> accepted) {
+        return of(dto, suffix(accepted));
+    }
+
+    private static String of(OrganisationDto dto, String suffix) {
+        return '"' + Long.toString(dto.getId()) + '-' + toMicros(dto.getUpdatedAt()) + suffix + '"';
+    }
+
+    /**
+     * Json is the first of the formats, so it is selected as well if any format is accepted.
+     */
+    private static String suffix(List<MediaType> accepted) {
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            if (type.isCompatibleWith(SMILE)) {
+                return SMILE_SUFFIX;
+            }
+            if (type.isCompatibleWith(CBOR)) {
+                return CBOR_SUFFIX;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Weak, the pages are only compared by {@code If-None-Match} and weak etags let tomcat compress the response and
+     * serve the same version in every negotiated format.
+     */
+    static String of(OrganisationTableVersion version) {
+        long updatedAt = version.lastUpdatedAt() == null ? 0 : toMicros(version.lastUpdatedAt());
+        return "W/\"t-" + updatedAt + '-' + version.count() + '"';
+    }
+
+    /**
+     * @return the last modified date in epoch milliseconds or -1 if unknown
+     */
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * The updates are conditional on the version, so the etag of any format is accepted.
+     *
+     * @return the {@code updatedAt} the etag was derived from, empty if it is weak, malformed or of another organisation
+     */
+    static Optional<LocalDateTime> parse(String etag, Long id) {
+        String prefix = "\"" + id + '-';
+        if (etag == null || !etag.startsWith(prefix) || !etag.endsWith("\"") || etag.length() <= prefix.length() + 1) {
+            return Optional.empty();
+        }
+        String version = etag.substring(prefix.length(), etag.length() - 1);
+        if (version.endsWith(SMILE_SUFFIX)) {
+            version = version.substring(0, version.length() - SMILE_SUFFIX.length());
+        } else if (version.endsWith(CBOR_SUFFIX)) {
+            version = version.substring(0, version.length() - CBOR_SUFFIX.length());
+        }
+        try {
+            long micros = Long.parseLong(version);
+            return Optional.of(EPOCH.plus(micros, ChronoUnit.MICROS));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Truncates to the precision of the database, so the version written is the version read afterwards.
+     */
+    static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static long toMicros(LocalDateTime updatedAt) {
+        return ChronoUnit.MICROS.between(EPOCH, updatedAt);
+    }
+}
@@ -0,0 +1,36 @@
+package com.group.iso.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Result of a single organisation of a batch request")
+public class OrganisationBatchResult {
+
+    public enum Status {
+        CREATED, CONFLICT, INVALID
+    }
+
+    @Schema(description = "Position of the organisation in the request (0-based)")
+    private int index;
+
+    @Schema(description = "Outcome for this organisation")
+    private Status status;
+
+    @Schema(description = "Identifier of the created organisation")
+    private Long id;
+
+    @Schema(description = "Organisation name")
+    private String name;
+
+    @Schema(description = "Reason why the organisation was not created")
+    private String message;
+}
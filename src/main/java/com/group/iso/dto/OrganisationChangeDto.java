@@ -0,0 +1,35 @@
+package com.group.iso.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Change of a single organisation")
+public class OrganisationChangeDto {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    @Schema(description = "Kind of the change, created if the organisation was created after the token the feed was requested with")
+    private Type type;
+
+    @Schema(description = "Identifier of the changed organisation")
+    private Long id;
+
+    @Schema(description = "Time of the change")
+    private LocalDateTime changedAt;
+
+    @Schema(description = "Current state of the organisation, absent for deleted organisations")
+    private OrganisationDto organisation;
+}
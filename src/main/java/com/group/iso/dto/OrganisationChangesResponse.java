@@ -0,0 +1,28 @@
+package com.group.iso.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Changes of the organisations in the order they happened")
+public class OrganisationChangesResponse {
+
+    @Schema(description = "List of changes, each organisation occurs at most once with its latest state")
+    private List<OrganisationChangeDto> changes;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Token to request the following changes, absent if no change happened yet")
+    private String nextToken;
+
+    @Schema(description = "Whether all changes up to now were returned, the client may poll with nextToken later")
+    private boolean last;
+}
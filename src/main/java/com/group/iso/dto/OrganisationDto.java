@@ -1,5 +1,6 @@
 package com.group.iso.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +10,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -36,4 +39,11 @@ public class OrganisationDto {
     @Schema(description = "Phone number")
     private String phone;
 
+    /**
+     * Version of the organisation, not part of the body but sent as etag and last modified header.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private LocalDateTime updatedAt;
+
 }
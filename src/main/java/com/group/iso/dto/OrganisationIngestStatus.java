@@ -0,0 +1,36 @@
+package com.group.iso.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of an organisation queued for creation")
+public class OrganisationIngestStatus {
+
+    public enum Status {
+        PENDING, CREATED, CONFLICT, INVALID, FAILED
+    }
+
+    @Schema(description = "Identifier of the queued organisation, part of the status location")
+    private String ticket;
+
+    @Schema(description = "Outcome, pending until the batch with the organisation was written")
+    private Status status;
+
+    @Schema(description = "Identifier of the created organisation")
+    private Long id;
+
+    @Schema(description = "Organisation name")
+    private String name;
+
+    @Schema(description = "Reason why the organisation was not created")
+    private String message;
+}
@@ -1,5 +1,6 @@
 package com.group.iso.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -25,12 +26,18 @@ public class PagedResponse<T> {
     @Schema(description = "Size of the page")
     private int pageSize;
 
-    @Schema(description = "Total number of elements available")
-    private long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Total number of elements available, absent when the count was skipped")
+    private Long totalElements;
 
-    @Schema(description = "Total number of pages available")
-    private int totalPages;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Total number of pages available, absent when the count was skipped")
+    private Integer totalPages;
 
     @Schema(description = "Whether this is the last page")
     private boolean last;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Cursor to request the following page in keyset mode, absent on the last page")
+    private String nextCursor;
 }
@@ -0,0 +1,107 @@
+package com.group.iso.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.repository.OrganisationRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes all organisations to an output stream while reading them through a database cursor.
+ * <p>
+ * The rows are read as dtos which are not kept in the persistence context, so the heap stays constant regardless of
+ * the number of organisations.
+ */
+@Component
+public class OrganisationExporter {
+
+    private static final String[] CSV_HEADER = {"id", "name", "address", "email", "phone"};
+
+    private final OrganisationRepository repository;
+    private final ObjectMapper objectMapper;
+    // the rows fill the buffer of the generator, which writes it to the response once full instead of a flush per row
+    private final ObjectWriter ndjsonWriter;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrganisationExporter(OrganisationRepository repository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writerFor(OrganisationDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // postgres only streams with a cursor inside of a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public void writeNdjson(OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // the lines are separated by the line feeds only, the generator would put a space between root values
+            generator.setRootValueSeparator(null);
+            forEach(dto -> {
+                try {
+                    ndjsonWriter.writeValue(generator, dto);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    public void writeCsv(OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            writeCsvLine(writer, CSV_HEADER);
+            forEach(dto -> {
+                try {
+                    writeCsvLine(writer, String.valueOf(dto.getId()), dto.getName(), dto.getAddress(), dto.getEmail(), dto.getPhone());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void forEach(Consumer<OrganisationDto> action) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<OrganisationDto> organisations = repository.streamAllBy()) {
+                organisations.forEach(action);
+            }
+        });
+    }
+
+    private static void writeCsvLine(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -13,6 +13,7 @@ public class OrganisationMapper {
                 .address(entity.getAddress())
                 .email(entity.getEmail())
                 .phone(entity.getPhone())
+                .updatedAt(entity.getUpdatedAt())
                 .build();
     }
 
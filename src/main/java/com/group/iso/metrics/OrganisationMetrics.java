@@ -0,0 +1,77 @@
+package com.group.iso.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Distributions of the organisation pages, the latencies of the endpoints and queries are already recorded as
+ * {@code http.server.requests} and {@code spring.data.repository.invocations}.
+ */
+@Component
+public class OrganisationMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public OrganisationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records the page size requested by the client and the number of organisations actually returned.
+     *
+     * @param pagination the kind of pagination, f.e. offset or keyset
+     */
+    public void recordPage(String pagination, int requestedSize, int returnedElements) {
+        DistributionSummary.builder("organisation.page.size")
+                .description("Page size requested by the client")
+                .tag("pagination", pagination)
+                .register(meterRegistry)
+                .record(requestedSize);
+        DistributionSummary.builder("organisation.page.elements")
+                .description("Organisations returned in a page")
+                .tag("pagination", pagination)
+                .register(meterRegistry)
+                .record(returnedElements);
+    }
+
+    /**
+     * Counts a request rejected before it reached the controller.
+     *
+     * @param reason   rate-limit if the client exceeded its rate or overload if the request was shed
+     * @param endpoint name of the controller method
+     */
+    public void recordRejected(String reason, String endpoint) {
+        Counter.builder("organisation.requests.rejected")
+                .description("Requests rejected by the rate limit or shed under load")
+                .tag("reason", reason)
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records the statements a request ran, failed requests apart as they stopped somewhere in between.
+     *
+     * @param endpoint   name of the controller method
+     * @param overBudget whether the request exceeded its statement or jdbc time budget, only counted for requests
+     *                   which completed
+     * @param failed     whether the request ended with an exception
+     */
+    public void recordSqlStatements(String endpoint, long statements, boolean overBudget, boolean failed) {
+        DistributionSummary.builder("organisation.request.statements")
+                .description("Statements sent to the database per request")
+                .tag("endpoint", endpoint)
+                .tag("outcome", failed ? "failure" : "success")
+                .register(meterRegistry)
+                .record(statements);
+        if (overBudget && !failed) {
+            Counter.builder("organisation.requests.over-sql-budget")
+                    .description("Requests exceeding their statement or jdbc time budget")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+}
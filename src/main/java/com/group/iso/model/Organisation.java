@@ -5,22 +5,41 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
+/**
+ * Kept in the second-level cache by id and by the natural id {@code name}, the regions are configured by
+ * {@link com.group.iso.cache.SecondLevelCacheConfiguration}.
+ */
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organisation")
+@NaturalIdCache(region = "organisation-by-name")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Organisation {
 
+    /**
+     * Ids hibernate reserves per call of the sequence, the increment of {@code organisation_seq}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "organisation_seq")
+    @SequenceGenerator(name = "organisation_seq", sequenceName = "organisation_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // organisations can be renamed
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String name;
 
@@ -0,0 +1,27 @@
+package com.group.iso.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Remembers a deleted {@link Organisation} so the change feed can report the delete.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganisationTombstone {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+}
@@ -0,0 +1,37 @@
+package com.group.iso.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Opaque resume token of the change feed pointing behind the last change a client received, changes are ordered by
+ * {@code (changedAt, id)}.
+ * <p>
+ * The token is the url safe base64 encoding of {@code <changedAt in microseconds since 1970>:<id>}, the precision
+ * stored by the database.
+ */
+public record OrganisationChangeToken(LocalDateTime changedAt, Long id) {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = ChronoUnit.MICROS.between(EPOCH, changedAt) + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not created by {@link #encode()}
+     */
+    public static OrganisationChangeToken decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid token: " + token);
+        }
+        LocalDateTime changedAt = EPOCH.plus(Long.parseLong(raw.substring(0, separator)), ChronoUnit.MICROS);
+        return new OrganisationChangeToken(changedAt, Long.valueOf(raw.substring(separator + 1)));
+    }
+}
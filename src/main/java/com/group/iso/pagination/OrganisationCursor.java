@@ -0,0 +1,32 @@
+package com.group.iso.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor pointing behind the last row of a page ordered by {@code (name, id)}.
+ * <p>
+ * The token is the url safe base64 encoding of {@code <id>:<name>}, the id is written first so the name may contain
+ * any character including the separator.
+ */
+public record OrganisationCursor(String name, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not created by {@link #encode()}
+     */
+    public static OrganisationCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new OrganisationCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+    }
+}
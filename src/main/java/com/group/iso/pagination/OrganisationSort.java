@@ -0,0 +1,102 @@
+package com.group.iso.pagination;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses the sort parameter of the organisation list, f.e. {@code name,asc}, {@code email,desc} or several fields
+ * separated by semicolons like {@code updatedAt,desc;name,asc}.
+ * <p>
+ * Only the fields backed by an index of the migrations may be sorted by, so no request can make the database sort the
+ * whole table. The id is appended as tiebreaker if the last field is not unique, in the direction of that field so the
+ * index on {@code (field, id)} can be scanned in either direction.
+ */
+public final class OrganisationSort {
+
+    /**
+     * The sortable fields with the property of the entity.
+     */
+    private enum Field {
+        NAME("name", true),
+        EMAIL("email", false),
+        UPDATED_AT("updatedAt", false),
+        ID("id", true);
+
+        private final String property;
+        private final boolean unique;
+
+        Field(String property, boolean unique) {
+            this.property = property;
+            this.unique = unique;
+        }
+
+        static Field of(String property) {
+            for (Field field : values()) {
+                if (field.property.equals(property)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported sort field: " + property);
+        }
+    }
+
+    // the combinations are few, the bound only protects from clients sending endless variants of the spelling
+    private static final int MAX_CACHED = 256;
+    private static final Map<String, Sort> CACHE = new ConcurrentHashMap<>();
+
+    private OrganisationSort() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if a field is not sortable, repeated or the direction is neither asc nor desc
+     */
+    public static Sort parse(String sort) {
+        Sort cached = CACHE.get(sort);
+        if (cached != null) {
+            return cached;
+        }
+        Sort parsed = doParse(sort);
+        if (CACHE.size() < MAX_CACHED) {
+            CACHE.put(sort, parsed);
+        }
+        return parsed;
+    }
+
+    private static Sort doParse(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        Field last = null;
+        for (String part : sort.split(";")) {
+            String[] tokens = part.strip().split(",");
+            if (tokens.length > 2) {
+                throw new IllegalArgumentException("Invalid sort: " + part);
+            }
+            last = Field.of(tokens[0].strip());
+            if (!fields.add(last)) {
+                throw new IllegalArgumentException("Sort field repeated: " + last.property);
+            }
+            Sort.Direction direction = tokens.length == 1 ? Sort.Direction.ASC : parseDirection(tokens[1].strip());
+            orders.add(new Sort.Order(direction, last.property));
+        }
+        if (!last.unique && !fields.contains(Field.ID)) {
+            orders.add(new Sort.Order(orders.get(orders.size() - 1).getDirection(), Field.ID.property));
+        }
+        return Sort.by(orders);
+    }
+
+    private static Sort.Direction parseDirection(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return Sort.Direction.ASC;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return Sort.Direction.DESC;
+        }
+        throw new IllegalArgumentException("Unsupported sort direction: " + direction);
+    }
+}
@@ -0,0 +1,69 @@
+package com.group.iso.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends the read-only transactions to the replicas of {@code organisation.replicas.urls} and everything else to the
+ * primary of {@code spring.datasource}, replacing the data source of spring boot.
+ * <p>
+ * Transactions take their connection when they begin, before spring marks them read-only. The lazy proxy defers this
+ * to the first statement, when it knows whether the transaction is read-only.
+ */
+@Configuration
+@ConditionalOnExpression("!'${organisation.replicas.urls:}'.isBlank()")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReadReplicaConfiguration implements WebMvcConfigurer {
+
+    private final ReplicaProperties properties;
+
+    public ReadReplicaConfiguration(ReplicaProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * The pool of the primary as spring boot would create it.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReadReplicas readReplicas(HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        return new ReadReplicas(primaryDataSource, properties, dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                registry == null ? null : new MicrometerMetricsTrackerFactory(registry));
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicas readReplicas) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicas.dataSource());
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(properties.readYourWritesWindow(), 100_000))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,170 @@
+package com.group.iso.replica;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools of the read replicas, handing out the connections of the read-only transactions.
+ * <p>
+ * The replicas take turns, a request stays on the replica of its first read. Reads of a {@link ReadRouting} on the
+ * primary, reads while no replica is healthy and reads for which a replica fails to hand out a connection go to the
+ * primary. A failing replica is taken out until the next successful health check.
+ */
+@Slf4j
+public class ReadReplicas implements HealthIndicator, AutoCloseable {
+
+    static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        String name() {
+            return pool.getPoolName();
+        }
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final DataSource dataSource = new AbstractDataSource() {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("The replicas are only accessed with the configured user");
+        }
+    };
+
+    public ReadReplicas(DataSource primary, ReplicaProperties properties, String defaultUsername,
+                        String defaultPassword, MetricsTrackerFactory metricsTrackerFactory) {
+        this.primary = primary;
+        for (String url : properties.urls()) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url);
+            config.setUsername(properties.username().isEmpty() ? defaultUsername : properties.username());
+            config.setPassword(properties.password().isEmpty() ? defaultPassword : properties.password());
+            config.setMaximumPoolSize(properties.poolSize());
+            config.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            config.setReadOnly(true);
+            // the application starts with a replica down and reads from the primary until it is back
+            config.setInitializationFailTimeout(-1);
+            if (metricsTrackerFactory != null) {
+                config.setMetricsTrackerFactory(metricsTrackerFactory);
+            }
+            replicas.add(new Replica(new HikariDataSource(config)));
+        }
+    }
+
+    /**
+     * @return the data source for the read-only transactions
+     */
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    /**
+     * @return threads of all replica pools waiting for a connection
+     */
+    public int threadsAwaitingConnection() {
+        int awaiting = 0;
+        for (Replica replica : replicas) {
+            HikariPoolMXBean pool = replica.pool.getHikariPoolMXBean();
+            awaiting += pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        }
+        return awaiting;
+    }
+
+    @Scheduled(fixedDelayString = "${organisation.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.pool.getConnection()) {
+                healthy = connection.isValid(1);
+            } catch (SQLException e) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                log.info("Replica {} ist {}", replica.name(), healthy ? "wieder verfügbar" : "nicht verfügbar");
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Up as long as the primary is, the replicas are reported in the details.
+     */
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        replicas.forEach(replica -> builder.withDetail(replica.name(), replica.healthy ? "UP" : "DOWN"));
+        return builder.build();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private Connection connection() throws SQLException {
+        ReadRouting.Route route = ReadRouting.current();
+        if (route != null && route.primary()) {
+            return primary.getConnection();
+        }
+        Replica replica = route == null ? null : route.replica();
+        if (replica == null || !replica.healthy) {
+            replica = select();
+            if (replica == null) {
+                return primary.getConnection();
+            }
+            if (route != null) {
+                route.pin(replica);
+            }
+        }
+        try {
+            return replica.pool.getConnection();
+        } catch (SQLException e) {
+            if (replica.healthy) {
+                log.warn("Replica {} ist nicht verfügbar, es wird von der primären Datenbank gelesen", replica.name(), e);
+            }
+            replica.healthy = false;
+            return primary.getConnection();
+        }
+    }
+
+    private Replica select() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package com.group.iso.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Where the read-only transactions of the current thread take their connection from. Without a route the
+ * {@link ReadReplicas} pick any healthy replica for every transaction.
+ * <p>
+ * The route only decides when a transaction takes its first connection, a transaction which already has one keeps it.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Route> ROUTE = new ThreadLocal<>();
+
+    /**
+     * Route of one request, the replica is pinned with the first read so all reads of the request see the same state.
+     */
+    static final class Route {
+
+        private final boolean primary;
+        private ReadReplicas.Replica replica;
+
+        Route(boolean primary) {
+            this.primary = primary;
+        }
+
+        boolean primary() {
+            return primary;
+        }
+
+        ReadReplicas.Replica replica() {
+            return replica;
+        }
+
+        void pin(ReadReplicas.Replica replica) {
+            this.replica = replica;
+        }
+    }
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Runs the reads of the action on the primary, for reads which must not lag behind the writes.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Route previous = ROUTE.get();
+        ROUTE.set(new Route(true));
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                ROUTE.remove();
+            } else {
+                ROUTE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return whether the reads of the current thread go to the primary
+     */
+    public static boolean isPrimary() {
+        Route route = ROUTE.get();
+        return route != null && route.primary();
+    }
+
+    static Route current() {
+        return ROUTE.get();
+    }
+
+    static void begin(boolean primary) {
+        ROUTE.set(new Route(primary));
+    }
+
+    static void end() {
+        ROUTE.remove();
+    }
+}
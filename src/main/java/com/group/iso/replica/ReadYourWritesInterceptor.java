@@ -0,0 +1,57 @@
+package com.group.iso.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Routes the reads of a request: writing requests and the requests of a client which wrote within the window read
+ * from the primary, so a client sees its own writes although the replicas lag behind. All other requests read from a
+ * replica.
+ * <p>
+ * Clients are identified by their address and only by the writes which went through this instance.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(Duration window, long maxClients) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReadRouting.begin(isWrite(request) || recentWriters.getIfPresent(request.getRemoteAddr()) != null);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // streamed responses continue on other threads, which pick their replica themselves
+        ReadRouting.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadRouting.end();
+        if (isWrite(request) && ex == null && response.getStatus() < 400) {
+            recentWriters.put(request.getRemoteAddr(), Boolean.TRUE);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)
+                && !HttpMethod.OPTIONS.matches(method);
+    }
+}
@@ -0,0 +1,30 @@
+package com.group.iso.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas of the primary database.
+ *
+ * @param urls                 jdbc urls of the replicas, without replicas everything is read from the primary
+ * @param username             user of the replicas, the one of the primary if empty
+ * @param password             password of the replicas, the one of the primary if empty
+ * @param poolSize             connections per replica
+ * @param connectionTimeout    how long a read waits for a replica connection before it falls back to the primary
+ * @param healthCheckInterval  how often the replicas are checked, a replica taken out is put back by the next check
+ * @param readYourWritesWindow how long the reads of a client go to the primary after it wrote, should exceed the lag
+ *                             of the replicas
+ */
+@ConfigurationProperties("organisation.replicas")
+public record ReplicaProperties(
+        @DefaultValue List<String> urls,
+        @DefaultValue("") String username,
+        @DefaultValue("") String password,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue("1s") Duration connectionTimeout,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("5s") Duration readYourWritesWindow) {
+}
@@ -0,0 +1,23 @@
+package com.group.iso.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code byte_order(text)} for the queries, it compares and sorts the text by its bytes.
+ * <p>
+ * On postgres it applies the {@code C} collation, so an index created with that collation serves prefix matches,
+ * ordering and keyset comparisons at once regardless of the collation of the database. Other databases, f.e. h2 in
+ * the tests, already compare strings that way or cannot apply a collation to an expression, for them it is a no-op.
+ */
+public class ByteOrderFunctionContributor implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String pattern = functionContributions.getDialect() instanceof PostgreSQLDialect ? "(?1 collate \"C\")" : "(?1)";
+        functionContributions.getFunctionRegistry().registerPattern("byte_order", pattern,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.STRING));
+    }
+}
@@ -0,0 +1,39 @@
+package com.group.iso.repository;
+
+import com.group.iso.model.Organisation;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Bulk writes of {@link Organisation}s. The ids are reserved in blocks from the {@code organisation_seq} sequence, so
+ * hibernate sends the inserts in jdbc batches of {@code hibernate.jdbc.batch_size}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrganisationBatchRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Inserts all organisations with jdbc batches and detaches them afterwards, so the persistence context does not
+     * grow with every call in the same transaction. The inserted organisations are not put into the second-level
+     * cache, an import would otherwise evict the ones actually read, only their small name entries are.
+     *
+     * @return the generated ids in the order of the given organisations
+     */
+    @Transactional
+    public List<Long> insertAll(List<Organisation> organisations) {
+        // for the rest of the transaction, the inserts are put into the cache only on its commit
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+        organisations.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+        return organisations.stream().map(Organisation::getId).toList();
+    }
+}
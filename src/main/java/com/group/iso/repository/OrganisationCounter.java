@@ -0,0 +1,64 @@
+package com.group.iso.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory approximation of the number of organisations.
+ * <p>
+ * The value is loaded with a single {@code count(*)} and afterwards kept up to date by the writes of this instance.
+ * Writes of other instances are only picked up by the periodic recount, so the value may drift in between.
+ */
+@Component
+public class OrganisationCounter {
+
+    private final OrganisationRepository repository;
+    private final long refreshIntervalNanos;
+    private final AtomicLong count = new AtomicLong();
+    private final Lock refreshLock = new ReentrantLock();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    public OrganisationCounter(OrganisationRepository repository,
+                               @Value("${organisation.total.refresh-interval:60s}") Duration refreshInterval) {
+        this.repository = repository;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    public long approximateCount() {
+        if (isStale()) {
+            // a lock instead of synchronized, a virtual thread waiting for the database would pin its carrier
+            refreshLock.lock();
+            try {
+                if (isStale()) {
+                    count.set(repository.count());
+                    loadedAt = System.nanoTime();
+                    loaded = true;
+                }
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return count.get();
+    }
+
+    public void add(long delta) {
+        count.addAndGet(delta);
+    }
+
+    /**
+     * Forces a recount on the next read, f.e. after rows were changed bypassing the api.
+     */
+    public void invalidate() {
+        loaded = false;
+    }
+
+    private boolean isStale() {
+        return !loaded || System.nanoTime() - loadedAt > refreshIntervalNanos;
+    }
+}
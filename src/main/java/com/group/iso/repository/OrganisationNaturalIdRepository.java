@@ -0,0 +1,15 @@
+package com.group.iso.repository;
+
+import com.group.iso.model.Organisation;
+
+import java.util.Optional;
+
+/**
+ * Lookups by the natural id {@code name}, resolved through the natural-id cache of hibernate instead of a query.
+ */
+public interface OrganisationNaturalIdRepository {
+
+    Optional<Organisation> findByName(String name);
+
+    boolean existsByName(String name);
+}
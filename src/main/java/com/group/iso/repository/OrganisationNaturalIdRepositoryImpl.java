@@ -0,0 +1,32 @@
+package com.group.iso.repository;
+
+import com.group.iso.model.Organisation;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * A cached name resolves to the id and the cached id to the organisation, so both hits leave the database alone. Names
+ * which do not exist are not cached and always queried.
+ */
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+class OrganisationNaturalIdRepositoryImpl implements OrganisationNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Organisation> findByName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Organisation.class)
+                .loadOptional(name);
+    }
+
+    @Override
+    public boolean existsByName(String name) {
+        return findByName(name).isPresent();
+    }
+}
@@ -1,16 +1,120 @@
 package com.group.iso.repository;
 
+import com.group.iso.dto.OrganisationDto;
 import com.group.iso.model.Organisation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface OrganisationRepository extends JpaRepository<Organisation, Long> {
+/**
+ * The query methods run in read-only transactions, the read paths select {@link OrganisationDto}s through a
+ * constructor expression so the rows are neither managed nor dirty checked.
+ */
+@Transactional(readOnly = true)
+public interface OrganisationRepository extends JpaRepository<Organisation, Long>, OrganisationNaturalIdRepository,
+        OrganisationWriteRepository {
 
+    String SELECT_DTO = "select new com.group.iso.dto.OrganisationDto(o.id, o.name, o.address, o.email, o.phone, "
+            + "o.updatedAt) from Organisation o";
+    String MATCHES_ANY = "(lower(o.name) like :pattern escape '\\' or lower(o.address) like :pattern escape '\\' "
+            + "or lower(o.email) like :pattern escape '\\')";
+    String NAME_KEY = "byte_order(lower(o.name))";
 
-    Optional<Organisation> findByName(String name);
+    @Query(SELECT_DTO + " where o.id = :id")
+    Optional<OrganisationDto> findDtoById(Long id);
 
-    boolean existsByName(String name);
+    @Query(SELECT_DTO + " where o.name = :name")
+    Optional<OrganisationDto> findDtoByName(String name);
 
+    /**
+     * Changes whenever an organisation is created, updated or deleted.
+     */
+    @Query("select new com.group.iso.repository.OrganisationTableVersion(max(o.updatedAt), count(o)) from Organisation o")
+    OrganisationTableVersion findTableVersion();
+
+    @Query("select o.name from Organisation o where o.name in :names")
+    Set<String> findExistingNames(Collection<String> names);
+
+    // the pages are not cached, the etag of the table version would vouch for a cached page outdated by a write past
+    // hibernate, of another instance, the reactive variant or the ingest
+
+    /**
+     * Reads only the content of a page, the total is counted separately.
+     */
+    @Query(SELECT_DTO)
+    List<OrganisationDto> findPageBy(Pageable pageable);
+
+    @Query(SELECT_DTO)
+    Slice<OrganisationDto> findSliceBy(Pageable pageable);
+
+    /**
+     * Reads all organisations through a server side cursor, the stream has to be consumed and closed inside of a
+     * transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_DTO + " order by o.id")
+    Stream<OrganisationDto> streamAllBy();
+
+    // keyset pagination over (name, id), the id breaks ties so the order is total and the cursor unambiguous
+
+    @Query(SELECT_DTO + " order by o.name asc, o.id asc")
+    List<OrganisationDto> seekFirstByNameAsc(Limit limit);
+
+    @Query(SELECT_DTO + " where (o.name, o.id) > (:name, :id) order by o.name asc, o.id asc")
+    List<OrganisationDto> seekAfterByNameAsc(String name, Long id, Limit limit);
+
+    @Query(SELECT_DTO + " order by o.name desc, o.id desc")
+    List<OrganisationDto> seekFirstByNameDesc(Limit limit);
+
+    @Query(SELECT_DTO + " where (o.name, o.id) < (:name, :id) order by o.name desc, o.id desc")
+    List<OrganisationDto> seekAfterByNameDesc(String name, Long id, Limit limit);
+
+    // search with keyset pagination, '\' escapes the wildcards of the patterns, the substrings are matched by the
+    // trigram indexes of the migrations and ordered by (name, id) like the keyset pages
+
+    @Query(SELECT_DTO + " where " + MATCHES_ANY + " order by o.name asc, o.id asc")
+    List<OrganisationDto> searchFirst(String pattern, Limit limit);
+
+    @Query(SELECT_DTO + " where " + MATCHES_ANY + " and (o.name, o.id) > (:name, :id) order by o.name asc, o.id asc")
+    List<OrganisationDto> searchAfter(String pattern, String name, Long id, Limit limit);
+
+    // prefixes are ordered by (lower case name, id) instead, their matches are adjacent in that order so the scan of
+    // the byte ordered index stops after the page, ordered by name they may be spread over the whole table
+
+    @Query(SELECT_DTO + " where " + NAME_KEY + " like :pattern escape '\\' order by " + NAME_KEY + " asc, o.id asc")
+    List<OrganisationDto> searchFirstByNamePrefix(String pattern, Limit limit);
+
+    /**
+     * @param name lower case name of the last organisation of the previous page
+     */
+    @Query(SELECT_DTO + " where " + NAME_KEY + " like :pattern escape '\\' and (" + NAME_KEY + ", o.id) > (byte_order(:name), :id) "
+            + "order by " + NAME_KEY + " asc, o.id asc")
+    List<OrganisationDto> searchAfterByNamePrefix(String pattern, String name, Long id, Limit limit);
+
+    // the change feed in the order of (updatedAt, id) up to the given time, served by the index of V4, the entities
+    // carry the creation time which tells created from updated organisations; clients reading the whole feed would
+    // push the organisations looked up by id and name out of the second-level cache, so the feed does not put
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("select o from Organisation o where o.updatedAt <= :until order by o.updatedAt asc, o.id asc")
+    List<Organisation> findChangedFirst(LocalDateTime until, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "GET"))
+    @Query("select o from Organisation o where (o.updatedAt, o.id) > (:updatedAt, :id) and o.updatedAt <= :until "
+            + "order by o.updatedAt asc, o.id asc")
+    List<Organisation> findChangedAfter(LocalDateTime updatedAt, Long id, LocalDateTime until, Limit limit);
 
 }
@@ -0,0 +1,11 @@
+package com.group.iso.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of the whole organisation table, the count detects deletes which do not move the last update.
+ *
+ * @param lastUpdatedAt latest update of any organisation, null if the table is empty
+ */
+public record OrganisationTableVersion(LocalDateTime lastUpdatedAt, Long count) {
+}
@@ -0,0 +1,33 @@
+package com.group.iso.repository;
+
+import com.group.iso.model.OrganisationTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OrganisationTombstoneRepository extends JpaRepository<OrganisationTombstone, Long> {
+
+    // an insert statement, save would select the assigned id first to decide between persist and merge
+    @Transactional
+    @Modifying
+    @Query("insert into OrganisationTombstone (id, deletedAt) values (:id, :deletedAt)")
+    void insert(Long id, LocalDateTime deletedAt);
+
+    @Query("select t from OrganisationTombstone t where t.deletedAt <= :until order by t.deletedAt asc, t.id asc")
+    List<OrganisationTombstone> findDeletedFirst(LocalDateTime until, Limit limit);
+
+    @Query("select t from OrganisationTombstone t where (t.deletedAt, t.id) > (:deletedAt, :id) and t.deletedAt <= :until "
+            + "order by t.deletedAt asc, t.id asc")
+    List<OrganisationTombstone> findDeletedAfter(LocalDateTime deletedAt, Long id, LocalDateTime until, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OrganisationTombstone t where t.deletedAt < :deletedAt")
+    int removeDeletedBefore(LocalDateTime deletedAt);
+}
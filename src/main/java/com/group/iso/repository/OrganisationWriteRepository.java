@@ -0,0 +1,35 @@
+package com.group.iso.repository;
+
+import com.group.iso.model.Organisation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Updates and deletes through the managed organisation, so hibernate replaces only its entries in the second-level
+ * cache. An update or delete query would evict the organisation and natural-id regions as a whole.
+ */
+@Transactional
+public interface OrganisationWriteRepository {
+
+    /**
+     * @return the updated organisation, empty if no organisation with the id exists
+     * @throws org.springframework.dao.DataIntegrityViolationException if another organisation has the name
+     */
+    Optional<Organisation> updateById(Long id, String name, String address, String email, String phone);
+
+    /**
+     * Optimistic variant of {@link #updateById}, only updates the organisation if it was not changed since the given
+     * version.
+     *
+     * @return the updated organisation, empty if no organisation with the id and version exists
+     */
+    Optional<Organisation> updateByIdAndUpdatedAt(Long id, LocalDateTime expectedUpdatedAt, String name,
+                                                   String address, String email, String phone);
+
+    /**
+     * @return false if no organisation with the id exists
+     */
+    boolean removeById(Long id);
+}
@@ -0,0 +1,56 @@
+package com.group.iso.repository;
+
+import com.group.iso.model.Organisation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * The organisation is selected for update past the second-level cache, a cached one may be outdated by another
+ * instance. The lock holds until the commit, so the check of the version and the update cannot interleave with another
+ * write.
+ */
+@RequiredArgsConstructor
+@Transactional
+class OrganisationWriteRepositoryImpl implements OrganisationWriteRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<Organisation> updateById(Long id, String name, String address, String email, String phone) {
+        return lock(id).map(organisation -> update(organisation, name, address, email, phone));
+    }
+
+    @Override
+    public Optional<Organisation> updateByIdAndUpdatedAt(Long id, LocalDateTime expectedUpdatedAt, String name,
+                                                          String address, String email, String phone) {
+        return lock(id)
+                .filter(organisation -> expectedUpdatedAt.equals(organisation.getUpdatedAt()))
+                .map(organisation -> update(organisation, name, address, email, phone));
+    }
+
+    @Override
+    public boolean removeById(Long id) {
+        Optional<Organisation> organisation = lock(id);
+        organisation.ifPresent(entityManager::remove);
+        return organisation.isPresent();
+    }
+
+    private Optional<Organisation> lock(Long id) {
+        return Optional.ofNullable(entityManager.find(Organisation.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
+
+    private Organisation update(Organisation organisation, String name, String address, String email, String phone) {
+        organisation.setName(name);
+        organisation.setAddress(address);
+        organisation.setEmail(email);
+        organisation.setPhone(phone);
+        // the unique constraint on the name fails here instead of at the commit, the flush also sets updatedAt
+        entityManager.flush();
+        return organisation;
+    }
+}
@@ -0,0 +1,75 @@
+package com.group.iso.statistics;
+
+import java.time.Duration;
+
+/**
+ * Statements, their jdbc time and the entities loaded by hibernate on behalf of one request, across all its sessions
+ * and transactions.
+ * <p>
+ * Only the request thread is counted, work continuing on other threads like streamed responses is not. Outside of a
+ * request nothing is recorded.
+ */
+public final class RequestSqlStatistics {
+
+    private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long jdbcNanos;
+    private long entitiesLoaded;
+
+    RequestSqlStatistics() {
+    }
+
+    /**
+     * @return the statistics of the request of the current thread or null outside of a request
+     */
+    public static RequestSqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    static RequestSqlStatistics begin() {
+        RequestSqlStatistics statistics = new RequestSqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted(long nanos) {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    static void entityLoaded() {
+        RequestSqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entitiesLoaded++;
+        }
+    }
+
+    /**
+     * @return the statements sent to the database, a jdbc batch counts as one
+     */
+    public long statements() {
+        return statements;
+    }
+
+    /**
+     * @return the time the statements took to execute, without reading their results
+     */
+    public Duration jdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    /**
+     * @return the entities loaded into persistence contexts, from the database or the second-level cache
+     */
+    public long entitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
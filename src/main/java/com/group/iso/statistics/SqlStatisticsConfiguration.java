@@ -0,0 +1,66 @@
+package com.group.iso.statistics;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Counts the statements and loaded entities of hibernate per request of the servlet api.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatisticsProperties.class)
+public class SqlStatisticsConfiguration {
+
+    @Bean
+    HibernatePropertiesCustomizer sqlStatisticsCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlStatisticsSessionListener.class.getName());
+            properties.put(JpaSettings.INTEGRATOR_PROVIDER, (IntegratorProvider) () -> List.of(new EntityLoadIntegrator()));
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(SqlStatisticsProperties properties,
+                                                                    OrganisationMetrics metrics) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(properties, metrics));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    /**
+     * The session events tell nothing about loaded entities, a post load listener does.
+     */
+    static class EntityLoadIntegrator implements Integrator {
+
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                              SessionFactoryImplementor sessionFactory) {
+            sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                    .appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestSqlStatistics.entityLoaded());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            // nothing to release
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.group.iso.statistics;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Collects the {@link RequestSqlStatistics} of every request, records them per endpoint and logs the requests over
+ * their budget, so an n+1 select or a slow query shows up before the latency does.
+ * <p>
+ * With the headers enabled the statistics are also returned to the client. They are set when the response is
+ * committed, for responses with a body that is after the controller returned.
+ */
+@Slf4j
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time";
+    public static final String ENTITIES_LOADED_HEADER = "X-Sql-Entities-Loaded";
+
+    private final SqlStatisticsProperties properties;
+    private final OrganisationMetrics metrics;
+
+    public SqlStatisticsFilter(SqlStatisticsProperties properties, OrganisationMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStatistics statistics = RequestSqlStatistics.begin();
+        HttpServletResponse wrapped = properties.headers() ? new HeaderWritingResponse(response, statistics) : response;
+        boolean failed = true;
+        try {
+            chain.doFilter(request, wrapped);
+            if (wrapped instanceof HeaderWritingResponse headerWriting) {
+                headerWriting.writeHeaders();
+            }
+            failed = false;
+        } finally {
+            RequestSqlStatistics.end();
+            record(request, statistics, failed);
+        }
+    }
+
+    /**
+     * @param failed whether the request ended with an exception, its statistics stop where it failed and are recorded
+     *               apart from the completed requests
+     */
+    private void record(HttpServletRequest request, RequestSqlStatistics statistics, boolean failed) {
+        String endpoint = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method
+                ? method.getMethod().getName()
+                : "none";
+        boolean overBudget = statistics.statements() > properties.statementBudget(endpoint)
+                || statistics.jdbcTime().compareTo(properties.timeBudget()) > 0;
+        metrics.recordSqlStatements(endpoint, statistics.statements(), overBudget, failed);
+        if (failed) {
+            log.debug("{} {} ({}) fehlgeschlagen: {} Statements, {} ms JDBC, {} Entitäten geladen",
+                    request.getMethod(), request.getRequestURI(), endpoint, statistics.statements(),
+                    milliseconds(statistics), statistics.entitiesLoaded());
+        } else if (overBudget) {
+            log.warn("{} {} ({}) über dem SQL-Budget: {} Statements, {} ms JDBC, {} Entitäten geladen",
+                    request.getMethod(), request.getRequestURI(), endpoint, statistics.statements(),
+                    milliseconds(statistics), statistics.entitiesLoaded());
+        } else {
+            log.debug("{} {} ({}): {} Statements, {} ms JDBC, {} Entitäten geladen",
+                    request.getMethod(), request.getRequestURI(), endpoint, statistics.statements(),
+                    milliseconds(statistics), statistics.entitiesLoaded());
+        }
+    }
+
+    private static String milliseconds(RequestSqlStatistics statistics) {
+        return String.format(Locale.ROOT, "%.3f", statistics.jdbcTime().toNanos() / 1_000_000.0);
+    }
+
+    /**
+     * Sets the headers right before the response is committed, afterwards they would be ignored.
+     */
+    private static final class HeaderWritingResponse extends HttpServletResponseWrapper {
+
+        private final RequestSqlStatistics statistics;
+        private boolean written;
+
+        HeaderWritingResponse(HttpServletResponse response, RequestSqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, Long.toString(statistics.statements()));
+            setHeader(TIME_HEADER, milliseconds(statistics));
+            setHeader(ENTITIES_LOADED_HEADER, Long.toString(statistics.entitiesLoaded()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.group.iso.statistics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Budgets of the statements a request may run before it is flagged.
+ *
+ * @param headers           whether the statistics are returned as {@code X-Sql-*} headers, they tell clients about
+ *                          the queries behind an endpoint so they are meant for development and tests
+ * @param statementBudget   statements per request by endpoints missing in the statement budgets
+ * @param statementBudgets  statements per request by name of the controller method
+ * @param timeBudget        jdbc time per request
+ */
+@ConfigurationProperties("organisation.sql-statistics")
+public record SqlStatisticsProperties(
+        @DefaultValue("false") boolean headers,
+        @DefaultValue("5") long statementBudget,
+        @DefaultValue Map<String, Long> statementBudgets,
+        @DefaultValue("100ms") Duration timeBudget) {
+
+    long statementBudget(String endpoint) {
+        return statementBudgets.getOrDefault(endpoint, statementBudget);
+    }
+}
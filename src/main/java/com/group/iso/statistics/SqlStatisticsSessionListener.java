@@ -0,0 +1,31 @@
+package com.group.iso.statistics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the statements of a session to the {@link RequestSqlStatistics}, hibernate creates one listener per session.
+ */
+public class SqlStatisticsSessionListener implements SessionEventListener {
+
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestSqlStatistics.statementExecuted(System.nanoTime() - startedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestSqlStatistics.statementExecuted(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,72 @@
+package com.group.iso.throttling;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.exception.JDBCConnectionException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+
+import java.io.IOException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Answers requests which passed the {@link ThrottlingInterceptor} but timed out waiting for a database connection like
+ * shed requests, requests arriving at once all pass before the first of them waits.
+ * <p>
+ * Without replicas the connection is taken when the transaction begins. With the read replicas the lazy data source
+ * takes it at the first statement, then the timeout of the pool arrives translated like any other failure of the
+ * database and only the {@link SQLTransientConnectionException} in its causes tells it apart.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class OverloadExceptionHandler {
+
+    private final ThrottlingProperties properties;
+    private final OrganisationMetrics metrics;
+
+    public OverloadExceptionHandler(ThrottlingProperties properties, OrganisationMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public void connectionUnavailable(HandlerMethod handler, HttpServletResponse response) throws IOException {
+        reject(handler, response);
+    }
+
+    /**
+     * @throws Exception the given one if it is not about acquiring a connection, it is then handled as without advice
+     */
+    @ExceptionHandler({DataAccessResourceFailureException.class, TransientDataAccessResourceException.class,
+            JDBCConnectionException.class})
+    public void connectionFailure(Exception exception, HandlerMethod handler, HttpServletResponse response)
+            throws Exception {
+        if (!isConnectionTimeout(exception)) {
+            throw exception;
+        }
+        reject(handler, response);
+    }
+
+    private void reject(HandlerMethod handler, HttpServletResponse response) throws IOException {
+        metrics.recordRejected("overload", handler.getMethod().getName());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                ThrottlingInterceptor.retryAfter(properties.overloadRetryAfter().toNanos()));
+        response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "No database connection available");
+    }
+
+    private static boolean isConnectionTimeout(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
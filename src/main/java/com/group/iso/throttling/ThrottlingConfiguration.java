@@ -0,0 +1,50 @@
+package com.group.iso.throttling;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import com.group.iso.replica.ReadReplicas;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.function.IntSupplier;
+
+@Configuration
+@EnableConfigurationProperties(ThrottlingProperties.class)
+public class ThrottlingConfiguration implements WebMvcConfigurer {
+
+    private final ThrottlingInterceptor interceptor;
+
+    public ThrottlingConfiguration(ThrottlingProperties properties, DataSource dataSource,
+                                   ObjectProvider<ReadReplicas> readReplicas, OrganisationMetrics metrics)
+            throws SQLException {
+        IntSupplier primary = awaitingConnections(dataSource);
+        ReadReplicas replicas = readReplicas.getIfAvailable();
+        IntSupplier awaitingConnections = replicas == null
+                ? primary
+                : () -> primary.getAsInt() + replicas.threadsAwaitingConnection();
+        this.interceptor = new ThrottlingInterceptor(properties, awaitingConnections, metrics, System::nanoTime);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+    }
+
+    private static IntSupplier awaitingConnections(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+            return () -> 0;
+        }
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        return () -> {
+            // the pool is created with the first connection
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.group.iso.throttling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group.iso.metrics.OrganisationMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Rejects requests before they wait for a database connection.
+ * <p>
+ * While too many threads already wait for a connection of the pool every request is answered with 503, the queue in
+ * front of the pool is what makes the latency fall apart for everybody and unlike the acquire timer it is known before
+ * the wait. The wait time itself is only known once a connection was acquired, requests waiting longer than the
+ * connection timeout are answered with 503 by the {@link OverloadExceptionHandler}. With the rate limits enabled every
+ * client, identified by its address or api key, has a {@link TokenBucket} and requests exceeding it are answered with
+ * 429. Both carry a {@code Retry-After}.
+ */
+public class ThrottlingInterceptor implements HandlerInterceptor {
+
+    private final ThrottlingProperties properties;
+    private final IntSupplier awaitingConnections;
+    private final OrganisationMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final Cache<String, TokenBucket> buckets;
+
+    public ThrottlingInterceptor(ThrottlingProperties properties, IntSupplier awaitingConnections,
+                                 OrganisationMetrics metrics, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.awaitingConnections = awaitingConnections;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        // an idle bucket is full again after burst / rate, dropping it then changes nothing
+        long refillNanos = Math.max(1, Math.round(properties.burst() / properties.tokensPerSecond() * 1_000_000_000));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofNanos(refillNanos))
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        String endpoint = method.getMethod().getName();
+        if (properties.maxAwaitingConnections() > 0
+                && awaitingConnections.getAsInt() >= properties.maxAwaitingConnections()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.overloadRetryAfter().toNanos(), "overload", endpoint);
+            return false;
+        }
+        if (!properties.enabled()) {
+            return true;
+        }
+        TokenBucket bucket = buckets.get(client(request),
+                key -> new TokenBucket(properties.tokensPerSecond(), properties.burst(), nanoClock));
+        long waitNanos = bucket.tryAcquire(properties.cost(endpoint));
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "rate-limit", endpoint);
+            return false;
+        }
+        return true;
+    }
+
+    private String client(HttpServletRequest request) {
+        if (!properties.apiKeyHeader().isEmpty()) {
+            String apiKey = request.getHeader(properties.apiKeyHeader());
+            if (apiKey != null && !apiKey.isBlank()) {
+                return "key:" + apiKey;
+            }
+        }
+        return "address:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String reason, String endpoint)
+            throws IOException {
+        metrics.recordRejected(reason, endpoint);
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter(waitNanos));
+        response.sendError(status.value(), status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Rate limit exceeded"
+                : "Too many requests waiting for the database");
+    }
+
+    /**
+     * @return whole seconds, rounded up so the client does not come back too early
+     */
+    static String retryAfter(long waitNanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Long.toString(Math.max(1, (waitNanos + second - 1) / second));
+    }
+}
@@ -0,0 +1,38 @@
+package com.group.iso.throttling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Rate limits per client and load shedding of the api.
+ *
+ * @param enabled                whether clients are rate limited, off by default as behind a proxy without
+ *                               {@code server.forward-headers-strategy} all clients would share one bucket
+ * @param tokensPerSecond        sustained rate of a client, a request takes the cost of its endpoint
+ * @param burst                  tokens a client may spend at once after being idle
+ * @param costs                  tokens per request by name of the controller method, endpoints missing take one
+ * @param apiKeyHeader           header identifying the client instead of its address, only for keys validated in
+ *                               front of the application as clients could otherwise get a new bucket per request
+ * @param maxClients             bound of the buckets kept in memory, the least recently seen clients are dropped
+ * @param maxAwaitingConnections requests are shed while this many threads wait for a database connection, zero
+ *                               disables the shedding
+ * @param overloadRetryAfter     the {@code Retry-After} of shed requests
+ */
+@ConfigurationProperties("organisation.throttling")
+public record ThrottlingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("50") double tokensPerSecond,
+        @DefaultValue("100") int burst,
+        @DefaultValue Map<String, Integer> costs,
+        @DefaultValue("") String apiKeyHeader,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue("20") int maxAwaitingConnections,
+        @DefaultValue("1s") Duration overloadRetryAfter) {
+
+    int cost(String endpoint) {
+        return costs.getOrDefault(endpoint, 1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.group.iso.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock free token bucket implemented as generic cell rate algorithm.
+ * <p>
+ * Instead of the tokens the bucket keeps the theoretical arrival time, the point in time at which all tokens taken so
+ * far would have been refilled. A request fits into the bucket if that time does not lie more than the burst ahead of
+ * now, so the whole state is a single long which is updated with compare and set.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final int burst;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double tokensPerSecond, int burst, LongSupplier nanoClock) {
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000 / tokensPerSecond));
+        this.burst = burst;
+        this.burstNanos = burst * nanosPerToken;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes the tokens if available, costs above the burst take the whole burst.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they are available
+     */
+    long tryAcquire(int tokens) {
+        long increment = Math.min(tokens, burst) * nanosPerToken;
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + increment;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
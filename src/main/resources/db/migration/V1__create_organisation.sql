@@ -0,0 +1,11 @@
+-- the table as hibernate created it before the migrations were introduced
+create table if not exists organisation
+(
+    id         bigint generated by default as identity primary key,
+    name       varchar(255) not null unique,
+    address    varchar(255),
+    email      varchar(255),
+    phone      varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6)
+);
@@ -0,0 +1,16 @@
+-- indexes of the search endpoint, built concurrently so that writes are not blocked on large tables
+
+-- pg_trgm is a trusted extension, the owner of the database may create it
+create extension if not exists pg_trgm with schema public;
+
+-- lower(...) like '%term%' on name, address and email
+create index concurrently if not exists organisation_name_trgm_idx
+    on organisation using gin (lower(name) public.gin_trgm_ops);
+create index concurrently if not exists organisation_address_trgm_idx
+    on organisation using gin (lower(address) public.gin_trgm_ops);
+create index concurrently if not exists organisation_email_trgm_idx
+    on organisation using gin (lower(email) public.gin_trgm_ops);
+
+-- lower(name) like 'term%' in the order of the results, byte ordered like the prefix queries
+create index concurrently if not exists organisation_name_prefix_idx
+    on organisation ((lower(name) collate "C"), id);
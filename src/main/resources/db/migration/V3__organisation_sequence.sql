@@ -0,0 +1,12 @@
+-- ids are taken from a sequence instead of the identity column, hibernate reserves 50 ids per call of nextval and
+-- can batch the inserts
+
+create sequence if not exists organisation_seq increment by 50 owned by organisation.id;
+
+-- hibernate uses the 50 values up to the value returned by nextval, so the first block has to start after the
+-- existing ids
+select setval('organisation_seq', coalesce(max(id), 0) + 50, false) from organisation;
+
+alter table organisation alter column id drop identity if exists;
+-- inserts without an id outside of hibernate take the last value of a block, which nobody else uses
+alter table organisation alter column id set default nextval('organisation_seq');
@@ -0,0 +1,5 @@
+-- indexes of the sort fields of the organisation pages, the id breaks ties like in the queries
+-- sorting by name is served by the unique index of the name
+
+create index concurrently if not exists organisation_email_idx on organisation (email, id);
+create index concurrently if not exists organisation_updated_at_idx on organisation (updated_at, id);
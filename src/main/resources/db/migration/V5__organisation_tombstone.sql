@@ -0,0 +1,11 @@
+-- deleted organisations for the change feed, kept for organisation.changes.tombstone-retention
+create table if not exists organisation_tombstone
+(
+    id         bigint primary key,
+    deleted_at timestamp(6) not null
+);
+
+create index if not exists organisation_tombstone_deleted_at_idx on organisation_tombstone (deleted_at, id);
+
+-- the change feed is ordered by updated_at, rows written before it was maintained would never be part of it
+update organisation set updated_at = coalesce(created_at, localtimestamp) where updated_at is null;
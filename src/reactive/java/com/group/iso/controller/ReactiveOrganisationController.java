@@ -0,0 +1,232 @@
+package com.group.iso.controller;
+
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.PagedResponse;
+import com.group.iso.metrics.OrganisationMetrics;
+import com.group.iso.pagination.OrganisationSort;
+import com.group.iso.repository.ReactiveOrganisationRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.accept.HeaderContentTypeResolver;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolver;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The organisation api of the reactive profile on webflux and r2dbc, a request holds neither a thread nor a database
+ * connection while it waits for the database or the client.
+ * <p>
+ * It answers like {@link OrganisationController} for the list, the stream and the single organisations, the other
+ * endpoints of the servlet variant are not offered.
+ */
+@RestController
+@RequestMapping("/api/organisations")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Tag(name = "Organisation", description = "API for managing organisations")
+public class ReactiveOrganisationController {
+
+    // the accepted media types by preference, for the etag of the format the organisation is written in
+    private static final RequestedContentTypeResolver ACCEPT = new HeaderContentTypeResolver();
+
+    private final ReactiveOrganisationRepository repository;
+    private final OrganisationMetrics metrics;
+    private final int maxPageSize;
+
+    public ReactiveOrganisationController(ReactiveOrganisationRepository repository,
+                                          OrganisationMetrics metrics,
+                                          @Value("${organisation.page.max-size:100}") int maxPageSize) {
+        this.repository = repository;
+        this.metrics = metrics;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @GetMapping
+    @Operation(summary = "Get all organisations", description = "Returns a paginated list of all organisations")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort or invalid size")
+    })
+    public Mono<PagedResponse<OrganisationDto>> getAllOrganisations(
+            @RequestParam(defaultValue = "0") @Parameter(description = "Page number (0-based)") int page,
+            @RequestParam(defaultValue = "10") @Parameter(description = "Page size, larger sizes are reduced to the maximum") int size,
+            @RequestParam(defaultValue = "name,asc") @Parameter(description = "Sorting fields name, email, updatedAt or id with direction separated by semicolons, e.g. name,asc or updatedAt,desc;name,asc") String sort,
+            @RequestParam(defaultValue = "true") @Parameter(description = "Whether the totals are calculated, false skips the count query") boolean withTotal) {
+
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page number must not be negative");
+        }
+        int pageSize = pageSize(size);
+        long offset = (long) page * pageSize;
+        // one additional row tells whether another page follows, content and count are queried concurrently
+        Mono<List<OrganisationDto>> rows = repository.findPage(parseSort(sort), offset, pageSize + 1).collectList();
+        Mono<Optional<Long>> total = withTotal ? repository.count().map(Optional::of) : Mono.just(Optional.empty());
+
+        return Mono.zip(rows, total).map(result -> {
+            boolean last = result.getT1().size() <= pageSize;
+            var content = last ? result.getT1() : result.getT1().subList(0, pageSize);
+            metrics.recordPage("offset", pageSize, content.size());
+
+            var response = PagedResponse.<OrganisationDto>builder()
+                    .content(content)
+                    .pageNumber(page)
+                    .pageSize(pageSize)
+                    .last(last);
+            result.getT2().ifPresent(count -> response
+                    .totalElements(count)
+                    .totalPages((int) ((count + pageSize - 1) / pageSize)));
+            return response.build();
+        });
+    }
+
+    @GetMapping(produces = OrganisationController.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all organisations", description = "Streams all organisations in the order of the sort as newline delimited json, the database is read as fast as the client receives")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Organisations streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Unsupported sort")
+    })
+    public Flux<OrganisationDto> streamOrganisations(
+            @RequestParam(defaultValue = "name,asc") @Parameter(description = "Sorting fields name, email, updatedAt or id with direction separated by semicolons") String sort) {
+
+        return repository.findAll(parseSort(sort));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get organisation by ID", description = "Returns a single organisation by its ID, 304 if it is unchanged since the version given as If-None-Match or If-Modified-Since")
+    public Mono<ResponseEntity<OrganisationDto>> getOrganisationById(
+            @Parameter(description = "ID of the organisation", example = "1")
+            @PathVariable Long id,
+            ServerWebExchange exchange) {
+
+        return repository.findDtoById(id)
+                // with the etag and last modified headers the result handler answers with 304 if the client has this
+                // version already
+                .map(dto -> dto.getUpdatedAt() == null
+                        ? ResponseEntity.ok(dto)
+                        : ResponseEntity.ok()
+                                .eTag(OrganisationETags.of(dto, ACCEPT.resolveMediaTypes(exchange)))
+                                .lastModified(OrganisationETags.lastModified(dto.getUpdatedAt()))
+                                .body(dto))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    @Operation(summary = "Create a new organisation", description = "Creates a new organisation")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Organisation created successfully"),
+            @ApiResponse(responseCode = "409", description = "Organisation with this name already exists")
+    })
+    public Mono<ResponseEntity<OrganisationDto>> createOrganisation(
+            @Valid @RequestBody OrganisationDto dto) {
+
+        return repository.existsByName(dto.getName())
+                .flatMap(exists -> exists
+                        ? Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).<OrganisationDto>build())
+                        : repository.insert(dto, OrganisationETags.now())
+                                .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved)))
+                // another request created the name in between, the unique constraint decides
+                .onErrorResume(DataIntegrityViolationException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    @PutMapping("/{id}")
+    @Operation(summary = "Update an existing organisation", description = "Updates organisation data by ID")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Organisation updated successfully"),
+            @ApiResponse(responseCode = "409", description = "Another Organisation with that name exists"),
+            @ApiResponse(responseCode = "404", description = "Organisation with this id cannot be found"),
+            @ApiResponse(responseCode = "412", description = "Organisation was changed since the version given as If-Match")
+    })
+    public Mono<ResponseEntity<OrganisationDto>> updateOrganisation(
+            @Parameter(description = "ID of the organisation", example = "1")
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) @Parameter(description = "Etag of the organisation the update is based on") String ifMatch,
+            @Valid @RequestBody OrganisationDto dto,
+            ServerWebExchange exchange) {
+
+        LocalDateTime updatedAt = OrganisationETags.now();
+        boolean conditional = ifMatch != null && !"*".equals(ifMatch.trim());
+        Mono<Long> updated;
+        if (conditional) {
+            // the version is part of the where clause, so check and update cannot interleave with another write
+            Optional<LocalDateTime> expected = OrganisationETags.parse(ifMatch.trim(), id);
+            updated = expected.isEmpty() ? Mono.just(0L) : repository.update(id, expected.get(), dto, updatedAt);
+        } else {
+            updated = repository.update(id, null, dto, updatedAt);
+        }
+
+        return updated
+                .flatMap(count -> {
+                    if (count > 0) {
+                        // every field of the dto was written, so the response is built without reading the row again
+                        OrganisationDto saved = OrganisationDto.builder()
+                                .id(id)
+                                .name(dto.getName())
+                                .address(dto.getAddress())
+                                .email(dto.getEmail())
+                                .phone(dto.getPhone())
+                                .updatedAt(updatedAt)
+                                .build();
+                        return Mono.just(ResponseEntity.ok()
+                                .eTag(OrganisationETags.of(saved, ACCEPT.resolveMediaTypes(exchange)))
+                                .lastModified(OrganisationETags.lastModified(updatedAt))
+                                .body(saved));
+                    }
+                    // only a failed update tells apart a missing organisation from a changed one
+                    return (conditional ? repository.existsById(id) : Mono.just(false))
+                            .map(exists -> ResponseEntity.status(exists ? HttpStatus.PRECONDITION_FAILED : HttpStatus.NOT_FOUND)
+                                    .<OrganisationDto>build());
+                })
+                // the unique constraint on the name
+                .onErrorResume(DataIntegrityViolationException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).build()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Delete an organisation", description = "Deletes the organisation with the given ID")
+    public Mono<ResponseEntity<Void>> deleteOrganisation(
+            @Parameter(description = "ID of the organisation", example = "1")
+            @PathVariable Long id) {
+
+        // the tombstone reports the delete to the change feed
+        return repository.delete(id, OrganisationETags.now())
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().build()
+                        : ResponseEntity.notFound().build());
+    }
+
+    /**
+     * @return the size reduced to the configured maximum, so a single request cannot fetch the whole table
+     */
+    private int pageSize(int size) {
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be greater than zero");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private static Sort parseSort(String sort) {
+        try {
+            return OrganisationSort.parse(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.group.iso.repository;
+
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.model.Organisation;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.Parameter;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking access to the organisations over r2dbc for the reactive profile, the statements are the ones the jpa
+ * repositories generate, so both variants can serve the same database.
+ * <p>
+ * The transaction manager is not a bean, a second one would make {@code @Transactional} of the jpa repositories
+ * ambiguous.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOrganisationRepository {
+
+    private static final String SELECT_DTO = "select id, name, address, email, phone, updated_at from organisation";
+    // the sortable properties of OrganisationSort with their column, like the pages of the jpa repository name is
+    // ordered by the column itself, byte_order(lower(name)) only orders the prefix search, which is servlet only
+    private static final Map<String, String> COLUMNS = Map.of(
+            "name", "name",
+            "email", "email",
+            "updatedAt", "updated_at",
+            "id", "id");
+    // rows the database sends per round trip while streaming, the stream waits for the client in between
+    private static final int FETCH_SIZE = 500;
+
+    private final DatabaseClient client;
+    private final TransactionalOperator transactions;
+    // the block of ids taken from the sequence, ids are handed out from next up to and including hi
+    private long nextId = 1;
+    private long hiId = 0;
+
+    public ReactiveOrganisationRepository(ConnectionFactory connectionFactory) {
+        this.client = DatabaseClient.create(connectionFactory);
+        this.transactions = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    public Mono<OrganisationDto> findDtoById(Long id) {
+        return client.sql(SELECT_DTO + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveOrganisationRepository::toDto)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long id) {
+        return client.sql("select 1 from organisation where id = :id")
+                .bind("id", id)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Boolean> existsByName(String name) {
+        return client.sql("select 1 from organisation where name = :name")
+                .bind("name", name)
+                .map(row -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    /**
+     * @param sort parsed by {@link com.group.iso.pagination.OrganisationSort}, which only lets indexed fields through
+     */
+    public Flux<OrganisationDto> findPage(Sort sort, long offset, int limit) {
+        return client.sql(SELECT_DTO + orderBy(sort) + " limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveOrganisationRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Streams all organisations, the rows are fetched as the subscriber requests them and not all at once.
+     */
+    public Flux<OrganisationDto> findAll(Sort sort) {
+        return client.sql(SELECT_DTO + orderBy(sort))
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveOrganisationRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return client.sql("select count(*) from organisation")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * @return the organisation with its id
+     * @throws org.springframework.dao.DataIntegrityViolationException if another organisation has the name
+     */
+    public Mono<OrganisationDto> insert(OrganisationDto dto, LocalDateTime createdAt) {
+        return nextId().flatMap(id -> client.sql("insert into organisation "
+                                + "(id, name, address, email, phone, created_at, updated_at) "
+                                + "values (:id, :name, :address, :email, :phone, :createdAt, :createdAt)")
+                        .bind("id", id)
+                        .bind("name", dto.getName())
+                        .bind("address", Parameter.fromOrEmpty(dto.getAddress(), String.class))
+                        .bind("email", Parameter.fromOrEmpty(dto.getEmail(), String.class))
+                        .bind("phone", Parameter.fromOrEmpty(dto.getPhone(), String.class))
+                        .bind("createdAt", createdAt)
+                        .then()
+                        .thenReturn(OrganisationDto.builder()
+                                .id(id)
+                                .name(dto.getName())
+                                .address(dto.getAddress())
+                                .email(dto.getEmail())
+                                .phone(dto.getPhone())
+                                .updatedAt(createdAt)
+                                .build()));
+    }
+
+    /**
+     * Takes the ids like the pooled optimizer of hibernate, a call of the sequence reserves the block of
+     * {@link Organisation#ID_ALLOCATION_SIZE} ids up to the returned value. Inserts taking the default of the column
+     * would use only the last id of every block.
+     * <p>
+     * Inserts running out of ids at the same time both call the sequence, the block of the first is dropped then.
+     */
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            Long id = takeId();
+            return id != null
+                    ? Mono.just(id)
+                    : client.sql("select nextval('organisation_seq')")
+                            .map(row -> row.get(0, Long.class))
+                            .one()
+                            .map(this::startBlock);
+        });
+    }
+
+    private synchronized Long takeId() {
+        return nextId <= hiId ? nextId++ : null;
+    }
+
+    /**
+     * @return the first id of the block, the first value of a new sequence is a block of its own like for hibernate
+     */
+    private synchronized long startBlock(long hi) {
+        long first = Math.max(1, hi - Organisation.ID_ALLOCATION_SIZE + 1);
+        nextId = first + 1;
+        hiId = hi;
+        return first;
+    }
+
+    /**
+     * @param expectedUpdatedAt version the update is conditional on or null to update unconditionally
+     * @return the number of updated rows, zero if no organisation with the id and version exists
+     * @throws org.springframework.dao.DataIntegrityViolationException if another organisation has the name
+     */
+    public Mono<Long> update(Long id, LocalDateTime expectedUpdatedAt, OrganisationDto dto, LocalDateTime updatedAt) {
+        String sql = "update organisation set name = :name, address = :address, email = :email, phone = :phone, "
+                + "updated_at = :updatedAt where id = :id";
+        DatabaseClient.GenericExecuteSpec update = client.sql(expectedUpdatedAt == null
+                        ? sql
+                        : sql + " and updated_at = :expectedUpdatedAt")
+                .bind("id", id)
+                .bind("name", dto.getName())
+                .bind("address", Parameter.fromOrEmpty(dto.getAddress(), String.class))
+                .bind("email", Parameter.fromOrEmpty(dto.getEmail(), String.class))
+                .bind("phone", Parameter.fromOrEmpty(dto.getPhone(), String.class))
+                .bind("updatedAt", updatedAt);
+        if (expectedUpdatedAt != null) {
+            update = update.bind("expectedUpdatedAt", expectedUpdatedAt);
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    /**
+     * Deletes the organisation and leaves a tombstone for the change feed in the same transaction.
+     *
+     * @return false if the organisation does not exist
+     */
+    public Mono<Boolean> delete(Long id, LocalDateTime deletedAt) {
+        return client.sql("delete from organisation where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.just(false)
+                        : client.sql("insert into organisation_tombstone (id, deleted_at) values (:id, :deletedAt)")
+                                .bind("id", id)
+                                .bind("deletedAt", deletedAt)
+                                .then()
+                                .thenReturn(true))
+                .as(transactions::transactional);
+    }
+
+    static String orderBy(Sort sort) {
+        return sort.stream()
+                .map(order -> column(order.getProperty()) + (order.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private static String column(String property) {
+        String column = COLUMNS.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Unsupported sort field: " + property);
+        }
+        return column;
+    }
+
+    private static OrganisationDto toDto(Readable row) {
+        return new OrganisationDto(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("address", String.class),
+                row.get("email", String.class),
+                row.get("phone", String.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+}
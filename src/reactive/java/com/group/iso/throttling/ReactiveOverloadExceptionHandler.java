@@ -0,0 +1,36 @@
+package com.group.iso.throttling;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * The {@link OverloadExceptionHandler} of the reactive profile, requests which timed out waiting for a connection of
+ * the r2dbc pool are answered like shed requests.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveOverloadExceptionHandler {
+
+    private final ThrottlingProperties properties;
+    private final OrganisationMetrics metrics;
+
+    public ReactiveOverloadExceptionHandler(ThrottlingProperties properties, OrganisationMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<Void> connectionUnavailable(HandlerMethod handler) {
+        metrics.recordRejected("overload", handler.getMethod().getName());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, ThrottlingInterceptor.retryAfter(properties.overloadRetryAfter().toNanos()))
+                .build();
+    }
+}
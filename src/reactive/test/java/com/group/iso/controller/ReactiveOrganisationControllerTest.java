@@ -0,0 +1,258 @@
+package com.group.iso.controller;
+
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationBatchRepository;
+import com.group.iso.repository.OrganisationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The reactive profile against h2, r2dbc and jdbc share the in-memory database so hibernate creates the tables.
+ */
+@SpringBootTest(properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive?options=DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="
+})
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveOrganisationControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrganisationRepository repository;
+
+    @Autowired
+    private OrganisationBatchRepository batchRepository;
+
+    @BeforeEach
+    void setup() {
+        jdbcTemplate.update("delete from organisation");
+        jdbcTemplate.update("delete from organisation_tombstone");
+    }
+
+    @Test
+    void shouldCreateAndGetOrganisation() {
+        OrganisationDto created = create("Org A", "a@example.com");
+        assertNotNull(created.getId());
+
+        String etag = client.get().uri("/api/organisations/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LAST_MODIFIED)
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Org A")
+                .jsonPath("$.email").isEqualTo("a@example.com")
+                .returnResult().getResponseHeaders().getETag();
+
+        client.get().uri("/api/organisations/{id}", created.getId())
+                .ifNoneMatch(etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void shouldCreateOrganisation_conflict() {
+        create("Org A", "a@example.com");
+
+        client.post().uri("/api/organisations")
+                .bodyValue(OrganisationDto.builder().name("Org A").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void shouldCreateOrganisation_invalid() {
+        client.post().uri("/api/organisations")
+                .bodyValue(OrganisationDto.builder().name(" ").email("no mail").build())
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldCreateOrganisation_idsOfOneBlock() {
+        List<Long> ids = Stream.of("Org A", "Org B", "Org C", "Org D")
+                .map(name -> create(name, null).getId())
+                .toList();
+        // hibernate takes its ids from blocks of the same sequence
+        List<Long> jpaIds = batchRepository.insertAll(List.of(Organisation.builder().name("Org E").build()));
+        Long id = create("Org F", null).getId();
+
+        // the default of the column would take a block of the sequence per insert
+        assertTrue(ids.getLast() - ids.getFirst() < Organisation.ID_ALLOCATION_SIZE, ids.toString());
+        HashSet<Long> all = new HashSet<>(ids);
+        all.addAll(jpaIds);
+        all.add(id);
+        assertEquals(6, all.size());
+    }
+
+    @Test
+    void shouldReturnNotFound() {
+        client.get().uri("/api/organisations/{id}", 4711)
+                .exchange()
+                .expectStatus().isNotFound();
+        client.put().uri("/api/organisations/{id}", 4711)
+                .bodyValue(OrganisationDto.builder().name("Org A").build())
+                .exchange()
+                .expectStatus().isNotFound();
+        client.delete().uri("/api/organisations/{id}", 4711)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldUpdateOrganisation() {
+        OrganisationDto created = create("Org A", "a@example.com");
+        create("Org B", "b@example.com");
+        String etag = OrganisationETags.of(created);
+
+        String updatedEtag = client.put().uri("/api/organisations/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .bodyValue(OrganisationDto.builder().name("Org C").email("c@example.com").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Org C")
+                .returnResult().getResponseHeaders().getETag();
+
+        // the version the client had is outdated now
+        client.put().uri("/api/organisations/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .bodyValue(OrganisationDto.builder().name("Org D").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        // the name of another organisation
+        client.put().uri("/api/organisations/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, updatedEtag)
+                .bodyValue(OrganisationDto.builder().name("Org B").build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void shouldDeleteOrganisation() {
+        OrganisationDto created = create("Org A", "a@example.com");
+
+        client.delete().uri("/api/organisations/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        client.get().uri("/api/organisations/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        // the change feed reports the delete
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from organisation_tombstone where id = ?",
+                Integer.class, created.getId()));
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations() {
+        create("Org C", "a@example.com");
+        create("Org A", "b@example.com");
+        create("Org B", "b@example.com");
+
+        client.get().uri("/api/organisations?page=0&size=2&sort=name,asc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.content[*].name").isEqualTo(List.of("Org A", "Org B"))
+                .jsonPath("$.totalElements").isEqualTo(3)
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.last").isEqualTo(false);
+
+        // organisations with the same email are ordered by id, no count without the total
+        client.get().uri("/api/organisations?page=1&size=2&sort=email&withTotal=false")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[*].name").isEqualTo(List.of("Org B"))
+                .jsonPath("$.totalElements").doesNotExist()
+                .jsonPath("$.last").isEqualTo(true);
+
+        client.get().uri("/api/organisations?sort=address,asc")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void shouldSortByNameLikeJpa() {
+        // the order by the column and by the lower case name differ for these
+        create("a Org", null);
+        create("B Org", null);
+        create("A Org", null);
+        List<String> jpa = repository.findPageBy(PageRequest.of(0, 10, Sort.by("name"))).stream()
+                .map(OrganisationDto::getName)
+                .toList();
+
+        client.get().uri("/api/organisations?sort=name,asc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[*].name").isEqualTo(jpa);
+    }
+
+    @Test
+    void shouldStreamOrganisations() {
+        create("Org C", "c@example.com");
+        create("Org A", "a@example.com");
+        create("Org B", "b@example.com");
+
+        List<OrganisationDto> streamed = client.get().uri("/api/organisations?sort=name,desc")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(OrganisationDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("Org C", "Org B", "Org A"), streamed.stream().map(OrganisationDto::getName).toList());
+    }
+
+    private OrganisationDto create(String name, String email) {
+        OrganisationDto created = client.post().uri("/api/organisations")
+                .bodyValue(OrganisationDto.builder().name(name).email(email).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(OrganisationDto.class)
+                .returnResult().getResponseBody();
+        // the version is not part of the body
+        return jdbcTemplate.queryForObject("select id, updated_at from organisation where id = ?",
+                (rs, row) -> OrganisationDto.builder()
+                        .id(rs.getLong("id"))
+                        .name(name)
+                        .email(email)
+                        .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                        .build(),
+                created.getId());
+    }
+}
@@ -0,0 +1,39 @@
+package com.group.iso.throttling;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+class ReactiveOverloadExceptionHandlerTest {
+
+    @RestController
+    static class TimingOutController {
+        @GetMapping("/api/organisations")
+        Mono<String> list() {
+            return Mono.error(new DataAccessResourceFailureException("Failed to obtain R2DBC Connection"));
+        }
+    }
+
+    @Test
+    void connectionUnavailable() {
+        // given
+        var properties = new ThrottlingProperties(true, 1, 2, Map.of(), "", 100, 5, Duration.ofMillis(1500));
+        WebTestClient client = WebTestClient.bindToController(new TimingOutController())
+                .controllerAdvice(new ReactiveOverloadExceptionHandler(properties,
+                        new OrganisationMetrics(new SimpleMeterRegistry())))
+                .build();
+        // execute / verify
+        client.get().uri("/api/organisations")
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "2");
+    }
+}
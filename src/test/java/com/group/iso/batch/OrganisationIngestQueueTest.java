@@ -0,0 +1,145 @@
+package com.group.iso.batch;
+
+import com.group.iso.cache.OrganisationCache;
+import com.group.iso.dto.OrganisationBatchResult;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.OrganisationIngestStatus.Status;
+import com.group.iso.repository.OrganisationCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OrganisationIngestQueueTest {
+
+    private final OrganisationImporter importer = mock(OrganisationImporter.class);
+    private final OrganisationCache cache = mock(OrganisationCache.class);
+    private final OrganisationCounter counter = mock(OrganisationCounter.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void submit_conflictAndFull() {
+        // given a queue of two which is not written as it is not started
+        var queue = queue(2, 10, Duration.ofMillis(10));
+        // execute / verify
+        assertEquals(Status.PENDING, queue.submit(organisation("Org A")).orElseThrow().getStatus());
+        assertEquals(Status.CONFLICT, queue.submit(organisation("Org A")).orElseThrow().getStatus());
+        assertEquals(Status.PENDING, queue.submit(organisation("Org B")).orElseThrow().getStatus());
+        assertTrue(queue.submit(organisation("Org C")).isEmpty());
+        assertEquals(2.0, meterRegistry.get("organisation.ingest.queue.size").gauge().value());
+    }
+
+    @Test
+    void writtenInBatches() throws Exception {
+        // given
+        List<Integer> batchSizes = new ArrayList<>();
+        when(importer.importAll(any())).thenAnswer(invocation -> {
+            Iterator<OrganisationDto> dtos = invocation.getArgument(0);
+            List<OrganisationBatchResult> results = new ArrayList<>();
+            while (dtos.hasNext()) {
+                OrganisationDto dto = dtos.next();
+                results.add(OrganisationBatchResult.builder()
+                        .index(results.size())
+                        .name(dto.getName())
+                        .status(OrganisationBatchResult.Status.CREATED)
+                        .id(100L + results.size())
+                        .build());
+            }
+            batchSizes.add(results.size());
+            return results;
+        });
+        var queue = queue(100, 3, Duration.ofMillis(200));
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            tickets.add(queue.submit(organisation("Org " + i)).orElseThrow().getTicket());
+        }
+        // execute
+        queue.start();
+        queue.stop();
+        // verify all were written in full batches but the last
+        assertEquals(List.of(3, 3, 1), batchSizes);
+        for (String ticket : tickets) {
+            assertEquals(Status.CREATED, queue.status(ticket).orElseThrow().getStatus());
+        }
+        verify(counter, times(2)).add(3);
+        verify(counter).add(1);
+        verify(cache).evictName("Org 6");
+    }
+
+    @Test
+    void failedBatch() throws Exception {
+        // given
+        when(importer.importAll(any())).thenThrow(new IllegalStateException("database down"));
+        var queue = queue(100, 10, Duration.ofMillis(10));
+        queue.start();
+        // execute
+        String ticket = queue.submit(organisation("Org A")).orElseThrow().getTicket();
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (queue.status(ticket).orElseThrow().getStatus() == Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        // verify
+        assertEquals(Status.FAILED, queue.status(ticket).orElseThrow().getStatus());
+        // the name may be queued again
+        assertEquals(Status.PENDING, queue.submit(organisation("Org A")).orElseThrow().getStatus());
+        queue.stop();
+        assertTrue(queue.submit(organisation("Org B")).isEmpty());
+    }
+
+    @Test
+    void stop_dropsAfterShutdownTimeout() throws Exception {
+        // given a database which does not answer until the writer is interrupted
+        CountDownLatch writing = new CountDownLatch(1);
+        when(importer.importAll(any())).thenAnswer(invocation -> {
+            writing.countDown();
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("connection closed", e);
+            }
+            return List.of();
+        });
+        var queue = queue(100, 1, Duration.ofMillis(10), Duration.ofMillis(100));
+        List<String> tickets = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tickets.add(queue.submit(organisation("Org " + i)).orElseThrow().getTicket());
+        }
+        queue.start();
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        // execute
+        long start = System.nanoTime();
+        queue.stop();
+        // verify
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+        assertEquals(0.0, meterRegistry.get("organisation.ingest.queue.size").gauge().value());
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (queue.status(tickets.get(0)).orElseThrow().getStatus() == Status.PENDING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Status.FAILED, queue.status(tickets.get(0)).orElseThrow().getStatus());
+        verify(importer, times(1)).importAll(any());
+    }
+
+    private OrganisationIngestQueue queue(int capacity, int batchSize, Duration flushInterval) {
+        return queue(capacity, batchSize, flushInterval, Duration.ofSeconds(10));
+    }
+
+    private OrganisationIngestQueue queue(int capacity, int batchSize, Duration flushInterval,
+                                          Duration shutdownTimeout) {
+        return new OrganisationIngestQueue(importer, cache, counter, meterRegistry, capacity, batchSize, flushInterval,
+                Duration.ofMinutes(1), 100, Duration.ofSeconds(1), shutdownTimeout);
+    }
+
+    private static OrganisationDto organisation(String name) {
+        return OrganisationDto.builder().name(name).email("info@example.com").build();
+    }
+}
@@ -0,0 +1,172 @@
+package com.group.iso.cache;
+
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.replica.ReadRouting;
+import com.group.iso.repository.OrganisationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrganisationCacheTest {
+
+    private OrganisationRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private OrganisationCache cache;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(OrganisationRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OrganisationCache(repository, meterRegistry, 100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void findById() {
+        // given
+        when(repository.findDtoById(1L)).thenReturn(Optional.of(organisation(1L, "aName")));
+        // execute
+        var first = cache.findById(1L);
+        var second = cache.findById(1L);
+        // verify
+        assertEquals("aName", first.orElseThrow().getName());
+        assertEquals(first, second);
+        verify(repository, times(1)).findDtoById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "organisation.by-id").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void findById_missingIsNotCached() {
+        // given
+        when(repository.findDtoById(1L)).thenReturn(Optional.empty());
+        // execute
+        cache.findById(1L);
+        cache.findById(1L);
+        // verify
+        verify(repository, times(2)).findDtoById(1L);
+    }
+
+    @Test
+    void findIdByName_populatedByIdLookup() {
+        // given
+        when(repository.findDtoById(1L)).thenReturn(Optional.of(organisation(1L, "aName")));
+        cache.findById(1L);
+        // execute
+        var id = cache.findIdByName("aName");
+        // verify
+        assertEquals(Optional.of(1L), id);
+        verify(repository, never()).findDtoByName(any());
+    }
+
+    @Test
+    void evict() {
+        // given
+        when(repository.findDtoByName("aName")).thenReturn(Optional.of(organisation(1L, "aName")));
+        assertTrue(cache.existsByName("aName"));
+        when(repository.findDtoByName("aName")).thenReturn(Optional.empty());
+        // execute
+        cache.evict(1L);
+        // verify
+        assertFalse(cache.existsByName("aName"));
+        verify(repository, times(2)).findDtoByName("aName");
+    }
+
+    @Test
+    void evict_keepsOtherNames() {
+        // given
+        when(repository.findDtoByName("aName")).thenReturn(Optional.of(organisation(1L, "aName")));
+        when(repository.findDtoByName("otherName")).thenReturn(Optional.of(organisation(2L, "otherName")));
+        cache.findIdByName("aName");
+        cache.findIdByName("otherName");
+        // execute
+        cache.evict(1L);
+        // verify
+        assertEquals(Optional.of(2L), cache.findIdByName("otherName"));
+        verify(repository, times(1)).findDtoByName("otherName");
+    }
+
+    @Test
+    void findIdByName_renamedIsNotReturned() {
+        // given the name is cached, the organisation by id is loaded again after a rename
+        when(repository.findDtoByName("oldName")).thenReturn(Optional.of(organisation(1L, "oldName")));
+        cache.findIdByName("oldName");
+        cache.evict(1L);
+        when(repository.findDtoById(1L)).thenReturn(Optional.of(organisation(1L, "newName")));
+        when(repository.findDtoByName("oldName")).thenReturn(Optional.empty());
+        // execute / verify
+        assertEquals("newName", cache.findById(1L).orElseThrow().getName());
+        assertTrue(cache.findIdByName("oldName").isEmpty());
+        assertEquals(Optional.of(1L), cache.findIdByName("newName"));
+    }
+
+    @Test
+    void evict_reloadedFromPrimary() {
+        // given
+        when(repository.findDtoById(1L)).thenAnswer(invocation -> ReadRouting.isPrimary()
+                ? Optional.of(organisation(1L, "newName"))
+                : Optional.of(organisation(1L, "oldName")));
+        assertEquals("oldName", cache.findById(1L).orElseThrow().getName());
+        // execute
+        cache.evict(1L);
+        // verify
+        assertEquals("newName", cache.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void evict_duringLoad() throws Exception {
+        // given a load which read the row before it was deleted
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        when(repository.findDtoById(1L)).thenAnswer(invocation -> {
+            read.countDown();
+            assertTrue(deleted.await(5, TimeUnit.SECONDS));
+            return Optional.of(organisation(1L, "aName"));
+        });
+        Thread load = Thread.ofVirtual().start(() -> cache.findById(1L));
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        // execute
+        cache.evict(1L);
+        deleted.countDown();
+        load.join(5000);
+        // verify the old row was not put
+        when(repository.findDtoById(1L)).thenReturn(Optional.empty());
+        when(repository.findDtoByName("aName")).thenReturn(Optional.empty());
+        assertTrue(cache.findById(1L).isEmpty());
+        assertFalse(cache.existsByName("aName"));
+    }
+
+    @Test
+    void evict_duringLoadByName() throws Exception {
+        // given a load by the old name which read the row before the rename
+        CountDownLatch read = new CountDownLatch(1);
+        CountDownLatch renamed = new CountDownLatch(1);
+        when(repository.findDtoByName("oldName")).thenAnswer(invocation -> {
+            read.countDown();
+            assertTrue(renamed.await(5, TimeUnit.SECONDS));
+            return Optional.of(organisation(1L, "oldName"));
+        });
+        Thread load = Thread.ofVirtual().start(() -> cache.findIdByName("oldName"));
+        assertTrue(read.await(5, TimeUnit.SECONDS));
+        // execute like the update, the old name is not cached yet
+        cache.evict(1L);
+        cache.evictName("newName");
+        renamed.countDown();
+        load.join(5000);
+        // verify
+        when(repository.findDtoById(1L)).thenReturn(Optional.of(organisation(1L, "newName")));
+        when(repository.findDtoByName("oldName")).thenReturn(Optional.empty());
+        assertEquals("newName", cache.findById(1L).orElseThrow().getName());
+        assertFalse(cache.existsByName("oldName"));
+    }
+
+    private static OrganisationDto organisation(Long id, String name) {
+        return OrganisationDto.builder().id(id).name(name).build();
+    }
+}
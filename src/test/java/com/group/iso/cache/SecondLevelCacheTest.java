@@ -0,0 +1,199 @@
+package com.group.iso.cache;
+
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationBatchRepository;
+import com.group.iso.repository.OrganisationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    private static final int ORGANISATIONS = 20;
+
+    @Autowired
+    private OrganisationRepository repository;
+
+    @Autowired
+    private OrganisationBatchRepository batchRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SessionFactory sessionFactory;
+    private Statistics statistics;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAllInBatch();
+        ids = batchRepository.insertAll(IntStream.range(0, ORGANISATIONS)
+                .mapToObj(i -> Organisation.builder().name("Org " + i).email(i + "@example.com").build())
+                .toList());
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // the inserts leave their names in the natural-id region
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findById_servedByEntityRegion() {
+        // execute
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Org 0", repository.findById(ids.get(0)).orElseThrow().getName());
+        }
+        // verify
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("organisation");
+        assertEquals(1, region.getMissCount());
+        assertEquals(9, region.getHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByName_servedByNaturalIdRegion() {
+        // execute
+        for (int i = 0; i < 10; i++) {
+            assertTrue(repository.existsByName("Org 1"));
+        }
+        // verify
+        CacheRegionStatistics byName = statistics.getDomainDataRegionStatistics("organisation-by-name");
+        assertEquals(1, byName.getMissCount());
+        assertEquals(9, byName.getHitCount());
+        // the miss selects the organisation by its name, the hits resolve the id and the organisation from the regions
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findByName_missingIsNotCached() {
+        // execute
+        assertFalse(repository.existsByName("unknown"));
+        assertFalse(repository.existsByName("unknown"));
+        // verify
+        assertEquals(0, statistics.getDomainDataRegionStatistics("organisation-by-name").getPutCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void update_evictsOrganisationAndName() {
+        // given
+        Long id = ids.get(2);
+        repository.findByName("Org 2").orElseThrow();
+        // execute
+        repository.updateById(id, "Renamed", null, null, null);
+        // verify
+        assertEquals("Renamed", repository.findById(id).orElseThrow().getName());
+        assertEquals(id, repository.findByName("Renamed").orElseThrow().getId());
+        assertTrue(repository.findByName("Org 2").isEmpty());
+    }
+
+    @Test
+    void writes_keepOtherOrganisationsCached() {
+        // given all organisations are cached by id and name
+        for (int i = 0; i < ORGANISATIONS; i++) {
+            repository.findById(ids.get(i)).orElseThrow();
+            repository.findByName("Org " + i).orElseThrow();
+        }
+        // execute
+        repository.updateById(ids.get(0), "Renamed", null, null, null);
+        repository.removeById(ids.get(1));
+        statistics.clear();
+        // verify the untouched organisations are still served by the regions
+        for (int i = 2; i < ORGANISATIONS; i++) {
+            assertEquals("Org " + i, repository.findById(ids.get(i)).orElseThrow().getName());
+            assertEquals(ids.get(i), repository.findByName("Org " + i).orElseThrow().getId());
+        }
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void queries_notCached() {
+        // execute
+        repository.findTableVersion();
+        repository.findTableVersion();
+        repository.findPageBy(PageRequest.of(0, 5, Sort.by("name")));
+        repository.findPageBy(PageRequest.of(0, 5, Sort.by("name")));
+        // verify
+        assertEquals(0, statistics.getQueryCachePutCount());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void insertAll_doesNotPut() {
+        // execute
+        batchRepository.insertAll(List.of(Organisation.builder().name("New Org").build()));
+        // verify
+        assertEquals(0, statistics.getDomainDataRegionStatistics("organisation").getPutCount());
+    }
+
+    @Test
+    void readHeavyMix() {
+        // the same mix once with the caches emptied before every read, as without second-level cache, and once with
+        // the caches
+        long uncached = run(true);
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        statistics.clear();
+
+        long cached = run(false);
+        long hits = statistics.getSecondLevelCacheHitCount();
+        double hitRatio = (double) hits / (hits + statistics.getSecondLevelCacheMissCount());
+
+        // verify
+        assertTrue(hitRatio > 0.8, "hit ratio " + hitRatio);
+        // the 200 pages and table versions always go to the database, the 300 reads by id and name only on a miss
+        assertTrue(cached < 200 + 100, cached + " statements cached, " + uncached + " uncached");
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tag("region", "organisation").tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    /**
+     * 500 reads by id, name, page and table version over the organisations with a write after every 100 reads.
+     *
+     * @return the number of statements sent to the database
+     */
+    private long run(boolean evictBeforeRead) {
+        List<Runnable> reads = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            int n = i % ORGANISATIONS;
+            reads.add(switch (i % 5) {
+                case 0, 1 -> () -> repository.findById(ids.get(n));
+                case 2 -> () -> repository.findByName("Org " + n);
+                case 3 -> () -> repository.findPageBy(PageRequest.of(n % 2, 10, Sort.by("name")));
+                default -> () -> repository.findTableVersion();
+            });
+        }
+
+        long before = statistics.getPrepareStatementCount();
+        for (int i = 0; i < reads.size(); i++) {
+            if (i % 100 == 99) {
+                repository.updateById(ids.get(i % ORGANISATIONS), "Org " + i % ORGANISATIONS, null, null, null);
+            }
+            if (evictBeforeRead) {
+                sessionFactory.getCache().evictAllRegions();
+            }
+            reads.get(i).run();
+        }
+        return statistics.getPrepareStatementCount() - before;
+    }
+}
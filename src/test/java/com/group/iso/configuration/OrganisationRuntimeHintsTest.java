@@ -0,0 +1,37 @@
+package com.group.iso.configuration;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.group.iso.dto.OrganisationChangeDto;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.dto.PagedResponse;
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationTableVersion;
+import com.group.iso.statistics.SqlStatisticsSessionListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganisationRuntimeHintsTest {
+
+    @Test
+    void registerHints() throws Exception {
+        // given
+        var hints = new RuntimeHints();
+        // execute
+        new OrganisationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        // verify
+        var reflection = RuntimeHintsPredicates.reflection();
+        assertTrue(reflection.onType(OrganisationDto.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(reflection.onMethod(OrganisationDto.class.getMethod("getName")).test(hints));
+        assertTrue(reflection.onMethod(PagedResponse.class.getMethod("getContent")).test(hints));
+        assertTrue(reflection.onMethod(OrganisationChangeDto.class.getMethod("getChangedAt")).test(hints));
+        assertTrue(reflection.onType(OrganisationTableVersion.class).withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+        assertTrue(reflection.onField(Organisation.class.getDeclaredField("name")).test(hints));
+        assertTrue(reflection.onType(CaffeineCachingProvider.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(reflection.onType(SqlStatisticsSessionListener.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("reference.conf").test(hints));
+    }
+}
@@ -0,0 +1,39 @@
+package com.group.iso.configuration;
+
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationBatchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrganisationSeederTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void seed() {
+        // given
+        OrganisationBatchRepository batchRepository = mock(OrganisationBatchRepository.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        List<Organisation> inserted = new ArrayList<>();
+        when(batchRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Organisation> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            inserted.addAll(batch);
+            return List.of();
+        });
+        // execute
+        new OrganisationSeeder(batchRepository, 100).seed(2_550);
+        // verify
+        assertEquals(26, batchSizes.size());
+        assertEquals(50, batchSizes.get(batchSizes.size() - 1));
+        assertEquals(2_550, inserted.size());
+        Set<String> names = new HashSet<>();
+        inserted.forEach(organisation -> assertTrue(names.add(organisation.getName()), organisation.getName()));
+    }
+}
@@ -1,22 +1,55 @@
 package com.group.iso.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.group.iso.cache.OrganisationCache;
 import com.group.iso.dto.OrganisationDto;
 import com.group.iso.model.Organisation;
+import com.group.iso.pagination.OrganisationChangeToken;
+import com.group.iso.repository.OrganisationCounter;
 import com.group.iso.repository.OrganisationRepository;
+import com.group.iso.repository.OrganisationTombstoneRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.restassured.module.mockmvc.RestAssuredMockMvc;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -26,38 +59,642 @@ class OrganisationControllerTest {
     @Autowired
     private OrganisationRepository repository;
 
+    @Autowired
+    private OrganisationTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private OrganisationCounter counter;
+
+    @Autowired
+    private OrganisationCache cache;
+
+    @Autowired
+    private OrganisationController controller;
+
     @Autowired
     private ObjectMapper objectMapper;
 
-    @BeforeEach
-    void setup() {
-        RestAssuredMockMvc.reset();
-        OrganisationController controller = new OrganisationController(repository);
-        RestAssuredMockMvc.standaloneSetup(controller);
-        repository.deleteAll();
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        RestAssuredMockMvc.reset();
+        RestAssuredMockMvc.standaloneSetup(controller);
+        repository.deleteAll();
+        tombstoneRepository.deleteAll();
+        counter.invalidate();
+        cache.invalidateAll();
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build(),
+                Organisation.builder().name("Org C").email("c@example.com").address("Addr C").phone("333").build()
+        ));
+
+        RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("page", 0)
+                .queryParam("size", 2)
+                .queryParam("sort", "name,asc")
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(2))
+                .body("content[0].name", equalTo("Org A"))
+                .body("content[1].name", equalTo("Org B"))
+                .body("totalElements", equalTo(3));
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_multipleSortFields() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org A").email("b@example.com").build(),
+                Organisation.builder().name("Org B").email("a@example.com").build(),
+                Organisation.builder().name("Org C").email("b@example.com").build()
+        ));
+
+        RestAssuredMockMvc.given()
+                .queryParam("sort", "email,desc;name,asc")
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("Org A", "Org C", "Org B"));
+
+        // organisations with the same email are ordered by id
+        RestAssuredMockMvc.given()
+                .queryParam("sort", "email")
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("Org B", "Org A", "Org C"));
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_unsupportedSort() {
+        for (String sort : List.of("address,asc", "name,up", "name,asc;name,desc")) {
+            RestAssuredMockMvc.given()
+                    .queryParam("sort", sort)
+                    .when()
+                    .get("/api/organisations")
+                    .then()
+                    .statusCode(HttpStatus.BAD_REQUEST.value());
+        }
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_sizeCapped() {
+        RestAssuredMockMvc.given()
+                .queryParam("size", 1000)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("pageSize", equalTo(100));
+
+        RestAssuredMockMvc.given()
+                .queryParam("size", 0)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_binaryFormats() throws Exception {
+        repository.save(Organisation.builder().name("Org A").email("a@example.com").build());
+
+        Map<String, ObjectMapper> mappers = Map.of(
+                "application/x-jackson-smile", new SmileMapper(),
+                "application/cbor", new CBORMapper());
+        for (Map.Entry<String, ObjectMapper> format : mappers.entrySet()) {
+            byte[] body = mockMvc.perform(get("/api/organisations").accept(format.getKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(format.getKey()))
+                    .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            assertEquals("Org A", format.getValue().readTree(body).at("/content/0/name").asText());
+        }
+
+        // clients without a preference keep getting json
+        mockMvc.perform(get("/api/organisations"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldReturnOrganisationById_etagPerFormat() throws Exception {
+        Organisation saved = repository.save(Organisation.builder().name("Org A").build());
+
+        Map<String, String> etags = new HashMap<>();
+        for (String format : List.of("application/json", "application/x-jackson-smile", "application/cbor")) {
+            String etag = mockMvc.perform(get("/api/organisations/{id}", saved.getId()).accept(format))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(format))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+            etags.put(format, etag);
+            mockMvc.perform(get("/api/organisations/{id}", saved.getId()).accept(format)
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+        }
+        // a cache must not answer a request for one format with the body of another
+        assertEquals(3, Set.copyOf(etags.values()).size());
+        mockMvc.perform(get("/api/organisations/{id}", saved.getId()).accept("application/cbor")
+                        .header(HttpHeaders.IF_NONE_MATCH, etags.get("application/json")))
+                .andExpect(status().isOk());
+
+        // the version of any format is a precondition of the update
+        mockMvc.perform(put("/api/organisations/{id}", saved.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept("application/x-jackson-smile")
+                        .header(HttpHeaders.IF_MATCH, etags.get("application/cbor"))
+                        .content(objectMapper.writeValueAsString(OrganisationDto.builder().name("Org B").build())))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-smile\"")));
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_metrics() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build(),
+                Organisation.builder().name("Org C").email("c@example.com").address("Addr C").phone("333").build()
+        ));
+        long pages = repositoryInvocations("findPageBy");
+        long versions = repositoryInvocations("findTableVersion");
+        var elements = meterRegistry.summary("organisation.page.elements", "pagination", "offset");
+        double returned = elements.totalAmount();
+
+        RestAssuredMockMvc.given()
+                .queryParam("size", 2)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(3));
+
+        assertEquals(pages + 1, repositoryInvocations("findPageBy"));
+        assertEquals(versions + 1, repositoryInvocations("findTableVersion"));
+        assertEquals(returned + 2, elements.totalAmount());
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_notModified() {
+        Organisation saved = repository.save(Organisation.builder().name("Org A").build());
+        repository.save(Organisation.builder().name("Org B").build());
+
+        String etag = RestAssuredMockMvc.when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .extract().header("ETag");
+
+        RestAssuredMockMvc.given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        // a delete does not move the latest update but the count
+        RestAssuredMockMvc.when()
+                .delete("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        RestAssuredMockMvc.given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(1));
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_afterWritePastHibernate() {
+        Organisation saved = repository.save(Organisation.builder().name("Org A").build());
+
+        String etag = RestAssuredMockMvc.when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content[0].name", equalTo("Org A"))
+                .extract().header("ETag");
+
+        // like a write of another instance, the reactive variant or the ingest
+        jdbcTemplate.update("update organisation set name = ?, updated_at = ? where id = ?", "Org B",
+                LocalDateTime.now(), saved.getId());
+
+        RestAssuredMockMvc.given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content[0].name", equalTo("Org B"));
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_withoutTotal() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build(),
+                Organisation.builder().name("Org C").email("c@example.com").address("Addr C").phone("333").build()
+        ));
+
+        RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("page", 0)
+                .queryParam("size", 2)
+                .queryParam("withTotal", false)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(2))
+                .body("last", equalTo(false))
+                .body("totalElements", nullValue())
+                .body("totalPages", nullValue());
+    }
+
+    @Test
+    void shouldReturnPagedOrganisations_approximateTotal() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build(),
+                Organisation.builder().name("Org C").email("c@example.com").address("Addr C").phone("333").build()
+        ));
+
+        RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("page", 0)
+                .queryParam("size", 2)
+                .queryParam("approximateTotal", true)
+                .when()
+                .get("/api/organisations")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(2))
+                .body("last", equalTo(false))
+                .body("totalElements", equalTo(3))
+                .body("totalPages", equalTo(2));
+    }
+
+    @Test
+    void shouldReturnOrganisationsByCursor() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org C").email("c@example.com").address("Addr C").phone("333").build(),
+                Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build()
+        ));
+
+        String nextCursor = RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("size", 2)
+                .when()
+                .get("/api/organisations/keyset")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(2))
+                .body("content[0].name", equalTo("Org A"))
+                .body("content[1].name", equalTo("Org B"))
+                .body("last", equalTo(false))
+                .body("totalElements", nullValue())
+                .extract().path("nextCursor");
+
+        RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("size", 2)
+                .queryParam("cursor", nextCursor)
+                .when()
+                .get("/api/organisations/keyset")
+                .then()
+                .statusCode(200)
+                .body("content.size()", equalTo(1))
+                .body("content[0].name", equalTo("Org C"))
+                .body("last", equalTo(true))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    void shouldReturnOrganisationsByCursor_descending() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build()
+        ));
+
+        RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("size", 1)
+                .queryParam("direction", "desc")
+                .when()
+                .get("/api/organisations/keyset")
+                .then()
+                .statusCode(200)
+                .body("content[0].name", equalTo("Org B"))
+                .body("last", equalTo(false));
+    }
+
+    @Test
+    void shouldReturnOrganisationsByCursor_invalidCursor() {
+        RestAssuredMockMvc.given()
+                .accept(MediaType.APPLICATION_JSON_VALUE)
+                .queryParam("cursor", "not-a-cursor")
+                .when()
+                .get("/api/organisations/keyset")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void shouldSearchOrganisations() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("Harbor Logistics").email("info@harbor.com").address("Quay 1").build(),
+                Organisation.builder().name("Baker").email("baker@example.com").address("1 Harbor Road").build(),
+                Organisation.builder().name("Arbor Tech").email("mail@harbor-tech.com").address("Main Street").build(),
+                Organisation.builder().name("Other").email("other@example.com").address("Side Street").build()
+        ));
+
+        String nextCursor = RestAssuredMockMvc.given()
+                .queryParam("q", "HARBOR")
+                .queryParam("size", 2)
+                .when()
+                .get("/api/organisations/search")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("Arbor Tech", "Baker"))
+                .body("last", equalTo(false))
+                .extract().path("nextCursor");
+
+        RestAssuredMockMvc.given()
+                .queryParam("q", "HARBOR")
+                .queryParam("size", 2)
+                .queryParam("cursor", nextCursor)
+                .when()
+                .get("/api/organisations/search")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("Harbor Logistics"))
+                .body("last", equalTo(true));
+    }
+
+    @Test
+    void shouldSearchOrganisations_prefix() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("abc one").build(),
+                Organisation.builder().name("ABC two").build(),
+                Organisation.builder().name("Abd").build(),
+                Organisation.builder().name("xabc").build()
+        ));
+
+        String nextCursor = RestAssuredMockMvc.given()
+                .queryParam("q", "Ab")
+                .queryParam("match", "prefix")
+                .queryParam("size", 2)
+                .when()
+                .get("/api/organisations/search")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("abc one", "ABC two"))
+                .extract().path("nextCursor");
+
+        RestAssuredMockMvc.given()
+                .queryParam("q", "Ab")
+                .queryParam("match", "prefix")
+                .queryParam("size", 2)
+                .queryParam("cursor", nextCursor)
+                .when()
+                .get("/api/organisations/search")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("Abd"))
+                .body("last", equalTo(true));
+    }
+
+    @Test
+    void shouldSearchOrganisations_wildcardsAreLiterals() {
+        repository.saveAll(List.of(
+                Organisation.builder().name("100% Green").build(),
+                Organisation.builder().name("1000 Green").build()
+        ));
+
+        RestAssuredMockMvc.given()
+                .queryParam("q", "0% g")
+                .when()
+                .get("/api/organisations/search")
+                .then()
+                .statusCode(200)
+                .body("content.name", contains("100% Green"));
+    }
+
+    @Test
+    void shouldSearchOrganisations_termTooShort() {
+        RestAssuredMockMvc.given()
+                .queryParam("q", "ab")
+                .when()
+                .get("/api/organisations/search")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void shouldReturnOrganisationById() {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Org X")
+                .email("x@example.com")
+                .address("X Street")
+                .phone("123")
+                .build());
+
+        RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name", equalTo("Org X"));
+    }
+
+    @Test
+    void shouldReturnOrganisationById_notModified() throws Exception {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Org X")
+                .email("x@example.com")
+                .address("X Street")
+                .phone("123")
+                .build());
+
+        String etag = RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag", notNullValue())
+                .header("Last-Modified", notNullValue())
+                .body("updatedAt", nullValue())
+                .extract().header("ETag");
+
+        RestAssuredMockMvc.given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        OrganisationDto dto = OrganisationDto.builder().name("Org Y").build();
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(dto))
+                .when()
+                .put("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        RestAssuredMockMvc.given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name", equalTo("Org Y"));
+    }
+
+    @Test
+    void shouldReturnOrganisationById_notFound() {
+        RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", Long.valueOf(1))
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void shouldReturnOrganisationById_afterUpdate() throws Exception {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Old Org")
+                .email("old@example.com")
+                .address("Old Street")
+                .phone("111")
+                .build());
+        // populates the cache
+        RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .body("name", equalTo("Old Org"));
+
+        OrganisationDto dto = OrganisationDto.builder()
+                .name("New Org")
+                .email("new@example.com")
+                .build();
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(dto))
+                .when()
+                .put("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value());
+
+        RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name", equalTo("New Org"));
     }
 
     @Test
-    void shouldReturnPagedOrganisations() {
-        repository.saveAll(List.of(
+    void shouldCreateOrganisation_afterDelete() throws Exception {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Org X")
+                .email("old@example.com")
+                .build());
+        // populates the name index
+        RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value());
+        RestAssuredMockMvc.when()
+                .delete("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        OrganisationDto dto = OrganisationDto.builder()
+                .name("Org X")
+                .email("x@example.com")
+                .build();
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(dto))
+                .when()
+                .post("/api/organisations")
+                .then()
+                .statusCode(HttpStatus.CREATED.value());
+    }
+
+    @Test
+    void shouldExportOrganisations() {
+        List<Organisation> saved = repository.saveAll(List.of(
                 Organisation.builder().name("Org A").email("a@example.com").address("Addr A").phone("111").build(),
-                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build(),
-                Organisation.builder().name("Org C").email("c@example.com").address("Addr C").phone("333").build()
+                Organisation.builder().name("Org B").email("b@example.com").address("Addr B").phone("222").build()
         ));
 
+        byte[] body = RestAssuredMockMvc.given()
+                .when()
+                .async()
+                .get("/api/organisations/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType("application/x-ndjson")
+                .extract().asByteArray();
+
+        // every line is a json object of its own, without a separator in front
+        String expected = "{\"id\":" + saved.get(0).getId()
+                + ",\"name\":\"Org A\",\"address\":\"Addr A\",\"email\":\"a@example.com\",\"phone\":\"111\"}\n"
+                + "{\"id\":" + saved.get(1).getId()
+                + ",\"name\":\"Org B\",\"address\":\"Addr B\",\"email\":\"b@example.com\",\"phone\":\"222\"}\n";
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), body, new String(body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldExportOrganisations_csv() {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Org \"A\"")
+                .email("a@example.com")
+                .address("Street 1, Berlin")
+                .build());
+
+        String body = RestAssuredMockMvc.given()
+                .queryParam("format", "csv")
+                .when()
+                .async()
+                .get("/api/organisations/export")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType("text/csv")
+                .extract().asString();
+
+        assertEquals("id,name,address,email,phone\r\n"
+                + saved.getId() + ",\"Org \"\"A\"\"\",\"Street 1, Berlin\",a@example.com,\r\n", body);
+    }
+
+    @Test
+    void shouldExportOrganisations_unsupportedFormat() {
         RestAssuredMockMvc.given()
-                .accept(MediaType.APPLICATION_JSON_VALUE)
-                .queryParam("page", 0)
-                .queryParam("size", 2)
-                .queryParam("sort", "name,asc")
+                .queryParam("format", "xml")
                 .when()
-                .get("/api/organisations")
+                .get("/api/organisations/export")
                 .then()
-                .statusCode(200)
-                .body("content.size()", equalTo(2))
-                .body("content[0].name", equalTo("Org A"))
-                .body("content[1].name", equalTo("Org B"))
-                .body("totalElements", equalTo(3));
+                .statusCode(HttpStatus.BAD_REQUEST.value());
     }
 
     @Test
@@ -104,6 +741,137 @@ class OrganisationControllerTest {
                 .statusCode(HttpStatus.CONFLICT.value());
     }
 
+    @Test
+    void shouldIngestOrganisations() throws Exception {
+        repository.save(Organisation.builder()
+                .name("Org A")
+                .email("a@example.com")
+                .build());
+
+        String created = RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(OrganisationDto.builder().name("Org B").email("b@example.com").build()))
+                .when()
+                .post("/api/organisations/ingest")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .header(HttpHeaders.LOCATION, startsWith("http://localhost/api/organisations/ingest/"))
+                .body("status", equalTo("PENDING"))
+                .extract().path("ticket");
+        String conflict = RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(OrganisationDto.builder().name("Org A").email("a@example.com").build()))
+                .when()
+                .post("/api/organisations/ingest")
+                .then()
+                .statusCode(HttpStatus.ACCEPTED.value())
+                .extract().path("ticket");
+
+        assertEquals("CREATED", awaitIngestStatus(created));
+        assertEquals("CONFLICT", awaitIngestStatus(conflict));
+        Number id = RestAssuredMockMvc.get("/api/organisations/ingest/" + created).path("id");
+        assertEquals("Org B", repository.findById(id.longValue()).orElseThrow().getName());
+    }
+
+    @Test
+    void shouldIngestOrganisation_invalid() throws Exception {
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(OrganisationDto.builder().name("").email("invalid").build()))
+                .when()
+                .post("/api/organisations/ingest")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+        RestAssuredMockMvc.given()
+                .when()
+                .get("/api/organisations/ingest/unknown")
+                .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void shouldCreateOrganisations() throws Exception {
+        repository.save(Organisation.builder()
+                .name("Org A")
+                .email("a@example.com")
+                .build());
+
+        List<OrganisationDto> dtos = List.of(
+                OrganisationDto.builder().name("Org A").email("a@example.com").build(),
+                OrganisationDto.builder().name("Org B").email("b@example.com").build(),
+                OrganisationDto.builder().name("Org B").email("b2@example.com").build(),
+                OrganisationDto.builder().name("").email("invalid").build(),
+                OrganisationDto.builder().name("Org C").email("c@example.com").build());
+
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(dtos))
+                .when()
+                .post("/api/organisations/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("size()", equalTo(5))
+                .body("status", contains("CONFLICT", "CREATED", "CONFLICT", "INVALID", "CREATED"))
+                .body("[1].id", notNullValue())
+                .body("[4].index", equalTo(4));
+
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void shouldCreateOrganisations_idsAreIgnored() throws Exception {
+        Organisation existing = repository.save(Organisation.builder()
+                .name("Org A")
+                .email("a@example.com")
+                .build());
+
+        List<OrganisationDto> dtos = List.of(
+                OrganisationDto.builder().id(existing.getId()).name("Org B").email("b@example.com").build(),
+                OrganisationDto.builder().id(existing.getId() + 1000).name("Org C").email("c@example.com").build());
+
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(dtos))
+                .when()
+                .post("/api/organisations/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", contains("CREATED", "CREATED"));
+
+        assertEquals("Org A", repository.findById(existing.getId()).orElseThrow().getName());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void shouldCreateOrganisationsFromStream() throws Exception {
+        String body = objectMapper.writeValueAsString(OrganisationDto.builder().name("Org A").email("a@example.com").build())
+                + "\n"
+                + objectMapper.writeValueAsString(OrganisationDto.builder().name("Org B").email("b@example.com").build())
+                + "\n";
+
+        RestAssuredMockMvc.given()
+                .contentType("application/x-ndjson")
+                .body(body)
+                .when()
+                .post("/api/organisations/batch")
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("status", contains("CREATED", "CREATED"));
+
+        assertTrue(repository.existsByName("Org B"));
+    }
+
+    @Test
+    void shouldCreateOrganisationsFromStream_malformed() {
+        RestAssuredMockMvc.given()
+                .contentType("application/x-ndjson")
+                .body("{\"name\": \"Org A\"}\n{\"name\": ")
+                .when()
+                .post("/api/organisations/batch")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
     @Test
     void shouldUpdateOrganisation() throws Exception {
         Organisation saved = repository.save(Organisation.builder()
@@ -127,7 +895,40 @@ class OrganisationControllerTest {
                 .put("/api/organisations/{id}", saved.getId())
                 .then()
                 .statusCode(HttpStatus.OK.value())
-                .body("name", equalTo("New Org"));
+                .body("id", equalTo(saved.getId().intValue()))
+                .body("name", equalTo("New Org"))
+                .body("address", equalTo("New Street"));
+
+        Organisation updated = repository.findById(saved.getId()).orElseThrow();
+        assertEquals("New Org", updated.getName());
+        assertEquals("222", updated.getPhone());
+        assertTrue(updated.getUpdatedAt().isAfter(saved.getUpdatedAt()));
+    }
+
+    @Test
+    void shouldUpdateOrganisation_sameName() throws Exception {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Old Org")
+                .email("old@example.com")
+                .address("Old Street")
+                .phone("111")
+                .build());
+
+        OrganisationDto dto = OrganisationDto.builder()
+                .name("Old Org")
+                .email("new@example.com")
+                .address("New Street")
+                .phone("222")
+                .build();
+
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(dto))
+                .when()
+                .put("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("email", equalTo("new@example.com"));
     }
 
     @Test
@@ -162,6 +963,50 @@ class OrganisationControllerTest {
                 .statusCode(HttpStatus.CONFLICT.value());
     }
 
+    @Test
+    void shouldUpdateOrganisation_ifMatch() throws Exception {
+        Organisation saved = repository.save(Organisation.builder()
+                .name("Old Org")
+                .email("old@example.com")
+                .address("Old Street")
+                .phone("111")
+                .build());
+        String etag = RestAssuredMockMvc.when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .extract().header("ETag");
+
+        OrganisationDto dto = OrganisationDto.builder().name("New Org").build();
+        String updatedEtag = RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("If-Match", etag)
+                .body(objectMapper.writeValueAsString(dto))
+                .when()
+                .put("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .extract().header("ETag");
+
+        // the etag of the response matches the one read afterwards
+        RestAssuredMockMvc.given()
+                .header("If-None-Match", updatedEtag)
+                .when()
+                .get("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .header("If-Match", etag)
+                .body(objectMapper.writeValueAsString(OrganisationDto.builder().name("Lost Update").build()))
+                .when()
+                .put("/api/organisations/{id}", saved.getId())
+                .then()
+                .statusCode(HttpStatus.PRECONDITION_FAILED.value());
+
+        assertEquals("New Org", repository.findById(saved.getId()).orElseThrow().getName());
+    }
+
     @Test
     void shouldUpdateOrganisation_notFound() throws Exception {
 
@@ -195,6 +1040,8 @@ class OrganisationControllerTest {
                 .delete("/api/organisations/{id}", saved.getId())
                 .then()
                 .statusCode(HttpStatus.NO_CONTENT.value());
+
+        assertFalse(repository.existsById(saved.getId()));
     }
 
     @Test
@@ -206,4 +1053,163 @@ class OrganisationControllerTest {
                 .statusCode(HttpStatus.NOT_FOUND.value());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldReturnChanges() throws Exception {
+        Organisation orgA = repository.save(Organisation.builder().name("Org A").build());
+        Organisation orgB = repository.save(Organisation.builder().name("Org B").build());
+        update(orgA.getId(), "Org A2");
+        RestAssuredMockMvc.when()
+                .delete("/api/organisations/{id}", orgB.getId())
+                .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        // every organisation once with its latest state in the order of the changes
+        String token = RestAssuredMockMvc.when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(200)
+                .body("changes.type", contains("CREATED", "DELETED"))
+                .body("changes.id", contains(orgA.getId().intValue(), orgB.getId().intValue()))
+                .body("changes[0].organisation.name", equalTo("Org A2"))
+                .body("changes[1].organisation", nullValue())
+                .body("last", equalTo(true))
+                .extract().path("nextToken");
+
+        Organisation orgC = repository.save(Organisation.builder().name("Org C").build());
+        update(orgA.getId(), "Org A3");
+
+        RestAssuredMockMvc.given()
+                .queryParam("since", token)
+                .when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(200)
+                .body("changes.type", contains("CREATED", "UPDATED"))
+                .body("changes.id", contains(orgC.getId().intValue(), orgA.getId().intValue()));
+    }
+
+    @Test
+    void shouldReturnChanges_paged() {
+        repository.save(Organisation.builder().name("Org A").build());
+        repository.save(Organisation.builder().name("Org B").build());
+
+        String token = RestAssuredMockMvc.given()
+                .queryParam("size", 1)
+                .when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(200)
+                .body("changes.organisation.name", contains("Org A"))
+                .body("last", equalTo(false))
+                .extract().path("nextToken");
+
+        String next = RestAssuredMockMvc.given()
+                .queryParam("since", token)
+                .queryParam("size", 1)
+                .when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(200)
+                .body("changes.organisation.name", contains("Org B"))
+                .body("last", equalTo(true))
+                .extract().path("nextToken");
+
+        // without new changes the token stays where it is
+        RestAssuredMockMvc.given()
+                .queryParam("since", next)
+                .when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(200)
+                .body("changes.size()", equalTo(0))
+                .body("nextToken", equalTo(next));
+    }
+
+    @Test
+    void shouldReturnChanges_invalidToken() {
+        RestAssuredMockMvc.given()
+                .queryParam("since", "not-a-token")
+                .when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        RestAssuredMockMvc.given()
+                .queryParam("since", new OrganisationChangeToken(LocalDateTime.of(2000, 1, 1, 0, 0), 1L).encode())
+                .when()
+                .get("/api/organisations/changes")
+                .then()
+                .statusCode(HttpStatus.GONE.value());
+    }
+
+    @Test
+    void shouldStreamChanges() throws Exception {
+        Organisation saved = repository.save(Organisation.builder().name("Org A").build());
+
+        MvcResult result = mockMvc.perform(get("/api/organisations/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        try {
+            String created = awaitEvent(result, "created");
+            assertTrue(created.contains("\"id\":" + saved.getId()), created);
+            assertTrue(created.contains("\"name\":\"Org A\""), created);
+
+            // the tombstone written by the controller reports the delete
+            mockMvc.perform(delete("/api/organisations/{id}", saved.getId()))
+                    .andExpect(status().isNoContent());
+            String deleted = awaitEvent(result, "deleted");
+            assertTrue(deleted.contains("\"id\":" + saved.getId()), deleted);
+        } finally {
+            // ends the polling of the stream like a disconnecting client
+            result.getRequest().getAsyncContext().complete();
+        }
+    }
+
+    private void update(Long id, String name) throws Exception {
+        RestAssuredMockMvc.given()
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .body(objectMapper.writeValueAsString(OrganisationDto.builder().name(name).build()))
+                .when()
+                .put("/api/organisations/{id}", id)
+                .then()
+                .statusCode(200);
+    }
+
+    private static String awaitIngestStatus(String ticket) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String status = RestAssuredMockMvc.get("/api/organisations/ingest/" + ticket).path("status");
+        while ("PENDING".equals(status) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            status = RestAssuredMockMvc.get("/api/organisations/ingest/" + ticket).path("status");
+        }
+        return status;
+    }
+
+    /**
+     * Waits for the first complete event of the name, the emitter writes the id, name and data of an event separately
+     * so the content may end in the middle of one.
+     *
+     * @return the data of the event
+     */
+    private static String awaitEvent(MvcResult result, String name) throws Exception {
+        String start = "event:" + name + "\ndata:";
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            String content = result.getResponse().getContentAsString();
+            int data = content.indexOf(start);
+            int end = data < 0 ? -1 : content.indexOf("\n\n", data);
+            if (end >= 0) {
+                return content.substring(data + start.length(), end);
+            }
+            assertTrue(System.nanoTime() < deadline, content);
+            Thread.sleep(50);
+        }
+    }
+
+    private long repositoryInvocations(String method) {
+        var timer = meterRegistry.find("spring.data.repository.invocations")
+                .tags("repository", "OrganisationRepository", "method", method)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,204 @@
+package com.group.iso.controller;
+
+import com.group.iso.cache.OrganisationCache;
+import com.group.iso.model.Organisation;
+import com.group.iso.repository.OrganisationCounter;
+import com.group.iso.repository.OrganisationRepository;
+import com.group.iso.repository.OrganisationTombstoneRepository;
+import com.group.iso.statistics.SqlStatisticsFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.group.iso.statistics.SqlStatements.atMost;
+import static com.group.iso.statistics.SqlStatements.count;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The statements each endpoint runs, starting with empty caches. A change running more statements, an n+1 select for
+ * example, fails here; one running less has to lower the expected count.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrganisationQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganisationRepository repository;
+
+    @Autowired
+    private OrganisationTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private OrganisationCounter counter;
+
+    @Autowired
+    private OrganisationCache cache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Organisation> organisations;
+
+    @BeforeEach
+    void setup() {
+        repository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+        organisations = repository.saveAll(IntStream.range(0, 20)
+                .mapToObj(i -> Organisation.builder().name("Org " + (char) ('A' + i)).email(i + "@example.com").build())
+                .toList());
+        counter.invalidate();
+        cache.invalidateAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void getAllOrganisations() throws Exception {
+        // the table version counts, so it replaces the count query
+        mockMvc.perform(get("/api/organisations").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(count(2));
+        // neither the table version nor the page are cached
+        mockMvc.perform(get("/api/organisations").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(count(2));
+        mockMvc.perform(get("/api/organisations").param("size", "5").param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(count(1));
+        // the slice, the approximation counts once
+        mockMvc.perform(get("/api/organisations").param("size", "5").param("approximateTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(count(2));
+    }
+
+    @Test
+    void getOrganisationsByCursorAndSearch() throws Exception {
+        mockMvc.perform(get("/api/organisations/keyset").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(count(1));
+        mockMvc.perform(get("/api/organisations/search").param("q", "org").param("match", "prefix"))
+                .andExpect(status().isOk())
+                .andExpect(count(1));
+    }
+
+    @Test
+    void getOrganisationById() throws Exception {
+        Long id = organisations.get(0).getId();
+        String etag = mockMvc.perform(get("/api/organisations/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(count(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/organisations/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(count(0));
+        mockMvc.perform(get("/api/organisations/{id}", 4711))
+                .andExpect(status().isNotFound())
+                .andExpect(count(1));
+    }
+
+    @Test
+    void createOrganisation() throws Exception {
+        // the name check and the insert, the id comes from the block of the sequence reserved by the setup
+        mockMvc.perform(post("/api/organisations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"New Org\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(count(2));
+        mockMvc.perform(post("/api/organisations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"New Org\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(count(1));
+    }
+
+    @Test
+    void createOrganisations() throws Exception {
+        mockMvc.perform(post("/api/organisations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"name\": \"New Org 1\"}, {\"name\": \"New Org 2\"}, {\"name\": \"Org A\"}]"))
+                .andExpect(status().isOk())
+                // the existing names of the chunk and one jdbc batch of inserts
+                .andExpect(count(2));
+    }
+
+    @Test
+    void createOrganisations_bulk() throws Exception {
+        // the statements grow with the jdbc batches and blocks of ids of 50 organisations, not with the organisations
+        mockMvc.perform(post("/api/organisations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(organisations(500, "[", ",", "]")))
+                .andExpect(status().isOk())
+                .andExpect(atMost(1 + 2 * 500 / 50));
+        mockMvc.perform(post("/api/organisations/batch")
+                        .contentType(OrganisationController.APPLICATION_NDJSON_VALUE)
+                        .content(organisations(1000, "", "\n", "\n").replace("New Org", "Streamed Org")))
+                .andExpect(status().isOk())
+                .andExpect(atMost(2 + 2 * 1000 / 50));
+    }
+
+    @Test
+    void updateOrganisation() throws Exception {
+        Long id = organisations.get(0).getId();
+        String etag = OrganisationETags.of(repository.findDtoById(id).orElseThrow());
+        mockMvc.perform(put("/api/organisations/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isOk())
+                // the organisation is selected for update, the update only replaces its entries in the cache
+                .andExpect(count(2));
+        // the select of the changed organisation and the check whether it exists
+        mockMvc.perform(put("/api/organisations/{id}", id)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed again\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(count(2));
+    }
+
+    @Test
+    void deleteOrganisation() throws Exception {
+        // the select for update, the delete and the tombstone
+        mockMvc.perform(delete("/api/organisations/{id}", organisations.get(0).getId()))
+                .andExpect(status().isNoContent())
+                .andExpect(count(3));
+        mockMvc.perform(delete("/api/organisations/{id}", organisations.get(0).getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(count(1));
+    }
+
+    @Test
+    void getChanges() throws Exception {
+        // the changed organisations are loaded as entities
+        mockMvc.perform(get("/api/organisations/changes").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(count(2))
+                .andExpect(header().string(SqlStatisticsFilter.ENTITIES_LOADED_HEADER, "20"));
+    }
+
+    private static String organisations(int count, String prefix, String delimiter, String suffix) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> "{\"name\": \"New Org " + i + "\"}")
+                .collect(Collectors.joining(delimiter, prefix, suffix));
+    }
+}
@@ -0,0 +1,62 @@
+package com.group.iso.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.repository.OrganisationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OrganisationExporterTest {
+
+    private static final int ORGANISATIONS = 10_000;
+
+    private final OrganisationRepository repository = mock(OrganisationRepository.class);
+    private final OrganisationExporter exporter = new OrganisationExporter(repository, new ObjectMapper(),
+            mock(PlatformTransactionManager.class));
+
+    @Test
+    void writeNdjson_buffered() throws IOException {
+        // given
+        when(repository.streamAllBy()).thenReturn(LongStream.rangeClosed(1, ORGANISATIONS)
+                .mapToObj(id -> OrganisationDto.builder().id(id).name("Org " + id).build()));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CountingOutputStream out = new CountingOutputStream(bytes);
+        // execute
+        exporter.writeNdjson(out);
+        // verify the rows are written in chunks of the buffer and flushed once at the end
+        assertEquals(ORGANISATIONS, bytes.toString(StandardCharsets.UTF_8).lines().count());
+        assertTrue(out.writes < ORGANISATIONS / 10, out.writes + " writes");
+        assertTrue(out.flushes <= 1, out.flushes + " flushes");
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private int writes;
+        private int flushes;
+
+        CountingOutputStream(ByteArrayOutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            writes++;
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushes++;
+            super.flush();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.group.iso.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the latencies of a load test run per operation and writes them as json report.
+ */
+class LoadReport {
+
+    private final Map<String, Samples> operations = new ConcurrentHashMap<>();
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final Instant startedAt = Instant.now();
+    private volatile Duration duration = Duration.ZERO;
+
+    void setting(String name, Object value) {
+        settings.put(name, value);
+    }
+
+    void record(String operation, long nanos, boolean success) {
+        operations.computeIfAbsent(operation, key -> new Samples()).record(nanos, success);
+    }
+
+    void finish(Duration duration) {
+        this.duration = duration;
+    }
+
+    long requests() {
+        return operations.values().stream().mapToLong(Samples::count).sum();
+    }
+
+    long errors() {
+        return operations.values().stream().mapToLong(Samples::errors).sum();
+    }
+
+    Map<String, Object> toMap() {
+        Samples total = new Samples();
+        Map<String, Object> summaries = new LinkedHashMap<>();
+        operations.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    summaries.put(entry.getKey(), entry.getValue().summary(duration));
+                    total.addAll(entry.getValue());
+                });
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("durationSeconds", duration.toMillis() / 1000.0);
+        report.put("settings", settings);
+        report.put("total", total.summary(duration));
+        report.put("operations", summaries);
+        return report;
+    }
+
+    void write(ObjectMapper objectMapper, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), toMap());
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void record(long nanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized void addAll(Samples other) {
+            synchronized (other) {
+                for (int i = 0; i < other.count; i++) {
+                    record(other.latencies[i], true);
+                }
+                errors += other.errors;
+            }
+        }
+
+        synchronized long count() {
+            return count;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized Map<String, Object> summary(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("errors", errors);
+            summary.put("requestsPerSecond", round(count / Math.max(duration.toMillis() / 1000.0, 0.001)));
+            summary.put("p50Ms", percentile(sorted, 0.50));
+            summary.put("p90Ms", percentile(sorted, 0.90));
+            summary.put("p99Ms", percentile(sorted, 0.99));
+            summary.put("maxMs", sorted.length == 0 ? 0 : round(sorted[sorted.length - 1] / 1_000_000.0));
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return round(sorted[Math.max(index, 0)] / 1_000_000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
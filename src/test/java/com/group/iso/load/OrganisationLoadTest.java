@@ -0,0 +1,238 @@
+package com.group.iso.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group.iso.configuration.OrganisationSeeder;
+import com.group.iso.dto.OrganisationDto;
+import com.group.iso.repository.OrganisationBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mix of all organisation endpoints with concurrent clients against an embedded database and writes the
+ * throughput and latency percentiles to {@code target/load-test/report.json}.
+ * <p>
+ * Only executed with the load profile: {@code ./mvnw test -Pload}, the settings are in {@code application-load.yml}
+ * and can be overwritten f.e. with {@code -Dload.clients=256}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("load")
+class OrganisationLoadTest {
+
+    private static final Path REPORT = Path.of("target", "load-test", "report.json");
+
+    /**
+     * Operations with their share of the requests.
+     */
+    private enum Operation {
+        LIST(30), KEYSET(10), GET(35), CREATE(10), UPDATE(10), DELETE(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(int value) {
+            for (Operation operation : values()) {
+                if (value < operation.weight) {
+                    return operation;
+                }
+                value -= operation.weight;
+            }
+            throw new IllegalArgumentException("Weights do not sum up to 100");
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private OrganisationBatchRepository batchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${load.seed-rows}")
+    private int seedRows;
+
+    @Value("${load.clients}")
+    private int clients;
+
+    @Value("${load.warmup}")
+    private Duration warmup;
+
+    @Value("${load.duration}")
+    private Duration duration;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private HttpClient httpClient;
+    private long minSeedId;
+    private long maxSeedId;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        seed();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            httpClient = HttpClient.newBuilder().executor(executor).build();
+            run(warmup, new LoadReport());
+
+            LoadReport report = new LoadReport();
+            report.setting("seedRows", seedRows);
+            report.setting("clients", clients);
+            report.setting("virtualThreads", virtualThreads);
+            report.setting("availableProcessors", Runtime.getRuntime().availableProcessors());
+            run(duration, report);
+            report.write(objectMapper, REPORT);
+            log.info("Load test finished: {}", objectMapper.writeValueAsString(report.toMap()));
+
+            assertTrue(report.errors() <= report.requests() / 100, "More than 1% of the requests failed");
+        }
+    }
+
+    private void seed() {
+        new OrganisationSeeder(batchRepository, 1000).seed(seedRows);
+        minSeedId = jdbcTemplate.queryForObject("select min(id) from organisation", Long.class);
+        maxSeedId = jdbcTemplate.queryForObject("select max(id) from organisation", Long.class);
+    }
+
+    private void run(Duration runtime, LoadReport report) throws InterruptedException {
+        long end = System.nanoTime() + runtime.toNanos();
+        long start = System.nanoTime();
+        List<Thread> threads = IntStream.range(0, clients)
+                .mapToObj(client -> Thread.ofVirtual().start(() -> {
+                    String cursor = null;
+                    while (System.nanoTime() < end) {
+                        cursor = execute(Operation.pick(ThreadLocalRandom.current().nextInt(100)), cursor, report);
+                    }
+                }))
+                .toList();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * @return the keyset cursor of this client for the next keyset request
+     */
+    private String execute(Operation operation, String cursor, LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long seedId = random.nextLong(minSeedId, maxSeedId + 1);
+        try {
+            switch (operation) {
+                case LIST -> send(operation, report, 200, get("/api/organisations?size=20&page=" + random.nextInt(50)));
+                case KEYSET -> {
+                    String path = "/api/organisations/keyset?size=20" + (cursor == null ? "" : "&cursor=" + cursor);
+                    HttpResponse<String> response = send(operation, report, 200, get(path));
+                    if (response == null || response.statusCode() != 200) {
+                        return null;
+                    }
+                    JsonNode next = objectMapper.readTree(response.body()).get("nextCursor");
+                    return next == null ? null : next.asText();
+                }
+                case GET -> send(operation, report, 200, get("/api/organisations/" + seedId));
+                case CREATE -> {
+                    HttpResponse<String> response = send(operation, report, 201, post(organisation("Load " + sequence.incrementAndGet())));
+                    if (response != null && response.statusCode() == 201) {
+                        createdIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+                    }
+                }
+                case UPDATE -> send(operation, report, 200,
+                        put("/api/organisations/" + seedId, organisation("Update " + seedId + " " + sequence.incrementAndGet())));
+                case DELETE -> {
+                    Long id = createdIds.poll();
+                    if (id != null) {
+                        send(operation, report, 204, HttpRequest.newBuilder(uri("/api/organisations/" + id)).DELETE());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Response of {} cannot be read", operation, e);
+        }
+        return cursor;
+    }
+
+    /**
+     * @return the response or null if the request failed
+     */
+    private HttpResponse<String> send(Operation operation, LoadReport report, int expectedStatus, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            report.record(operation.name().toLowerCase(Locale.ROOT), System.nanoTime() - start, response.statusCode() == expectedStatus);
+            return response;
+        } catch (IOException e) {
+            report.record(operation.name().toLowerCase(Locale.ROOT), System.nanoTime() - start, false);
+            log.warn("Request {} failed", operation, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private String organisation(String name) throws IOException {
+        return objectMapper.writeValueAsString(OrganisationDto.builder()
+                .name(name)
+                .address("Load Street 1, Berlin")
+                .email("load@example.com")
+                .phone("+49 30 1234567")
+                .build());
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET();
+    }
+
+    private HttpRequest.Builder post(String body) {
+        return HttpRequest.newBuilder(uri("/api/organisations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder put(String path, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,26 @@
+package com.group.iso.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganisationChangeTokenTest {
+
+    @Test
+    void encodeDecode() {
+        // given
+        var token = new OrganisationChangeToken(LocalDateTime.of(2025, 7, 1, 12, 30, 15, 123_456_000), 42L);
+        // execute
+        var decoded = OrganisationChangeToken.decode(token.encode());
+        // verify
+        assertEquals(token, decoded);
+    }
+
+    @Test
+    void decodeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> OrganisationChangeToken.decode("not-a-token"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationChangeToken.decode("%%%"));
+    }
+}
@@ -0,0 +1,24 @@
+package com.group.iso.pagination;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganisationCursorTest {
+
+    @Test
+    void encodeDecode() {
+        // given
+        var cursor = new OrganisationCursor("Müller: Söhne & Co", 42L);
+        // execute
+        var decoded = OrganisationCursor.decode(cursor.encode());
+        // verify
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decodeInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> OrganisationCursor.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationCursor.decode("%%%"));
+    }
+}
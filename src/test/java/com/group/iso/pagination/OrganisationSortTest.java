@@ -0,0 +1,33 @@
+package com.group.iso.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrganisationSortTest {
+
+    @Test
+    void parse() {
+        assertEquals(Sort.by("name"), OrganisationSort.parse("name,asc"));
+        assertEquals(Sort.by(Sort.Order.desc("email"), Sort.Order.desc("id")), OrganisationSort.parse("email,DESC"));
+        assertEquals(Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.asc("name")),
+                OrganisationSort.parse("updatedAt,desc; name"));
+        assertEquals(Sort.by(Sort.Order.asc("email"), Sort.Order.desc("id")), OrganisationSort.parse("email;id,desc"));
+    }
+
+    @Test
+    void parseCached() {
+        assertSame(OrganisationSort.parse("email,asc"), OrganisationSort.parse("email,asc"));
+    }
+
+    @Test
+    void parseInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSort.parse("address,asc"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSort.parse("Name,asc"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSort.parse("name,sideways"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSort.parse("name,asc,desc"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSort.parse("email;email,desc"));
+        assertThrows(IllegalArgumentException.class, () -> OrganisationSort.parse(""));
+    }
+}
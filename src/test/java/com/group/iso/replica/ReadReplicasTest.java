@@ -0,0 +1,114 @@
+package com.group.iso.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory databases stand in for the primary and its replica, each knows its own name.
+ */
+class ReadReplicasTest {
+
+    private static final String PRIMARY = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    // fails to connect like a replica which is down
+    private static final String MISSING = "jdbc:h2:mem:missing;IFEXISTS=TRUE";
+
+    private HikariDataSource primary;
+    private ReadReplicas replicas;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setup() throws SQLException {
+        createNode(PRIMARY, "primary");
+        createNode(REPLICA, "replica");
+        primary = new HikariDataSource();
+        primary.setJdbcUrl(PRIMARY);
+        primary.setUsername("sa");
+    }
+
+    @AfterEach
+    void close() {
+        ReadRouting.end();
+        replicas.close();
+        primary.close();
+    }
+
+    @Test
+    void readOnlyTransactionsReadFromReplica() {
+        // given
+        start(REPLICA);
+        // execute / verify
+        assertEquals("replica", readOnly.execute(status -> node()));
+        assertEquals("primary", readWrite.execute(status -> node()));
+        assertEquals("primary", ReadRouting.onPrimary(() -> readOnly.execute(status -> node())));
+    }
+
+    @Test
+    void requestOnPrimary() {
+        start(REPLICA);
+        ReadRouting.begin(true);
+        assertEquals("primary", readOnly.execute(status -> node()));
+    }
+
+    @Test
+    void fallbackToPrimary() {
+        // given
+        start(MISSING);
+        // execute / verify
+        assertEquals("primary", readOnly.execute(status -> node()));
+        assertEquals(Status.UP, replicas.health().getStatus());
+        assertEquals("DOWN", replicas.health().getDetails().get("replica-1"));
+        replicas.checkHealth();
+        assertEquals("DOWN", replicas.health().getDetails().get("replica-1"));
+    }
+
+    @Test
+    void healthyReplicaStaysIn() {
+        start(REPLICA);
+        replicas.checkHealth();
+        assertEquals("UP", replicas.health().getDetails().get("replica-1"));
+        assertEquals("replica", readOnly.execute(status -> node()));
+    }
+
+    private void start(String replicaUrl) {
+        var properties = new ReplicaProperties(List.of(replicaUrl), "", "", 2, Duration.ofMillis(500),
+                Duration.ofSeconds(5), Duration.ofSeconds(5));
+        replicas = new ReadReplicas(primary, properties, "sa", "", null);
+        var dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicas.dataSource());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        var transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static void createNode(String url, String name) throws SQLException {
+        try (var connection = DriverManager.getConnection(url, "sa", "");
+             var statement = connection.createStatement()) {
+            statement.execute("create table if not exists node (name varchar(20))");
+            statement.execute("delete from node");
+            statement.execute("insert into node values ('" + name + "')");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.group.iso.replica;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofMinutes(1), 100);
+
+    @AfterEach
+    void end() {
+        ReadRouting.end();
+    }
+
+    @Test
+    void writerReadsFromPrimary() {
+        assertFalse(readsFromPrimary("GET", "10.0.0.1", 200));
+        assertTrue(readsFromPrimary("PUT", "10.0.0.1", 200));
+        assertTrue(readsFromPrimary("GET", "10.0.0.1", 200));
+        // other clients keep reading from the replicas
+        assertFalse(readsFromPrimary("GET", "10.0.0.2", 200));
+    }
+
+    @Test
+    void failedWriteIsNoWrite() {
+        assertTrue(readsFromPrimary("POST", "10.0.0.1", 409));
+        assertFalse(readsFromPrimary("GET", "10.0.0.1", 200));
+    }
+
+    @Test
+    void windowExpired() {
+        var interceptor = new ReadYourWritesInterceptor(Duration.ZERO, 100);
+        handle(interceptor, "DELETE", "10.0.0.1", 204);
+        assertFalse(handle(interceptor, "GET", "10.0.0.1", 200));
+    }
+
+    private boolean readsFromPrimary(String method, String address, int status) {
+        return handle(interceptor, method, address, status);
+    }
+
+    private static boolean handle(ReadYourWritesInterceptor interceptor, String method, String address, int status) {
+        var request = new MockHttpServletRequest(method, "/api/organisations");
+        request.setRemoteAddr(address);
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        boolean primary = ReadRouting.isPrimary();
+        response.setStatus(status);
+        interceptor.afterCompletion(request, response, new Object(), null);
+        assertFalse(ReadRouting.isPrimary());
+        return primary;
+    }
+}
@@ -0,0 +1,41 @@
+package com.group.iso.statistics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asserts the statements an endpoint ran on the headers of the {@link SqlStatisticsFilter}, which the test profile
+ * enables. A request running more statements than before fails the build instead of reaching production.
+ */
+public final class SqlStatements {
+
+    private SqlStatements() {
+    }
+
+    public static ResultMatcher count(long expected) {
+        return result -> assertEquals(expected, statements(result.getResponse()),
+                () -> describe(result.getRequest(), result.getResponse()));
+    }
+
+    public static ResultMatcher atMost(long maximum) {
+        return result -> assertTrue(statements(result.getResponse()) <= maximum,
+                () -> "at most " + maximum + " expected, " + describe(result.getRequest(), result.getResponse()));
+    }
+
+    private static long statements(MockHttpServletResponse response) {
+        String statements = response.getHeader(SqlStatisticsFilter.STATEMENTS_HEADER);
+        assertNotNull(statements, "No " + SqlStatisticsFilter.STATEMENTS_HEADER + " header, is the filter enabled?");
+        return Long.parseLong(statements);
+    }
+
+    private static String describe(HttpServletRequest request, MockHttpServletResponse response) {
+        return "statements of " + request.getMethod() + " " + request.getRequestURI()
+                + " (" + response.getHeader(SqlStatisticsFilter.TIME_HEADER) + " ms jdbc, "
+                + response.getHeader(SqlStatisticsFilter.ENTITIES_LOADED_HEADER) + " entities loaded)";
+    }
+}
@@ -0,0 +1,105 @@
+package com.group.iso.statistics;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SqlStatisticsFilterTest {
+
+    @RestController
+    static class QueryingController {
+        @GetMapping("/api/organisations")
+        String list() {
+            RequestSqlStatistics.statementExecuted(Duration.ofMillis(2).toNanos());
+            RequestSqlStatistics.statementExecuted(Duration.ofMillis(1).toNanos());
+            RequestSqlStatistics.entityLoaded();
+            return "[]";
+        }
+
+        @DeleteMapping("/api/organisations")
+        ResponseEntity<Void> delete() {
+            RequestSqlStatistics.statementExecuted(Duration.ofMillis(1).toNanos());
+            return ResponseEntity.noContent().build();
+        }
+
+        @PostMapping("/api/organisations")
+        String create() {
+            RequestSqlStatistics.statementExecuted(Duration.ofMillis(1).toNanos());
+            RequestSqlStatistics.statementExecuted(Duration.ofMillis(1).toNanos());
+            throw new IllegalStateException("connection lost");
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockMvc mockMvc(SqlStatisticsProperties properties) {
+        return MockMvcBuilders.standaloneSetup(new QueryingController())
+                .addFilters(new SqlStatisticsFilter(properties, new OrganisationMetrics(meterRegistry)))
+                .build();
+    }
+
+    @Test
+    void headersAndMetrics() throws Exception {
+        // given
+        MockMvc mockMvc = mockMvc(new SqlStatisticsProperties(true, 1, Map.of("delete", 5L), Duration.ofSeconds(1)));
+        // execute / verify
+        mockMvc.perform(get("/api/organisations"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlStatisticsFilter.STATEMENTS_HEADER, "2"))
+                .andExpect(header().string(SqlStatisticsFilter.TIME_HEADER, "3.000"))
+                .andExpect(header().string(SqlStatisticsFilter.ENTITIES_LOADED_HEADER, "1"));
+        // responses without body are committed by a flush
+        mockMvc.perform(delete("/api/organisations"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(SqlStatisticsFilter.STATEMENTS_HEADER, "1"));
+
+        assertEquals(2.0, meterRegistry.get("organisation.request.statements").tag("endpoint", "list")
+                .tag("outcome", "success").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("organisation.request.statements").tag("endpoint", "delete").summary().totalAmount());
+        // only the list exceeds its budget
+        assertEquals(1.0, meterRegistry.get("organisation.requests.over-sql-budget").counter().count());
+        assertEquals(1, meterRegistry.find("organisation.requests.over-sql-budget").tag("endpoint", "list").counters().size());
+    }
+
+    @Test
+    void timeBudget() throws Exception {
+        // given
+        MockMvc mockMvc = mockMvc(new SqlStatisticsProperties(false, 10, Map.of(), Duration.ofMillis(2)));
+        // execute / verify
+        mockMvc.perform(get("/api/organisations"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(SqlStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals(1.0, meterRegistry.get("organisation.requests.over-sql-budget").tag("endpoint", "list").counter().count());
+    }
+
+    @Test
+    void failedRequest() {
+        // given
+        MockMvc mockMvc = mockMvc(new SqlStatisticsProperties(false, 1, Map.of(), Duration.ofSeconds(1)));
+        // execute
+        assertThrows(Exception.class, () -> mockMvc.perform(post("/api/organisations")));
+        // verify the statements up to the failure are kept apart and not counted against the budget
+        assertEquals(2.0, meterRegistry.get("organisation.request.statements").tag("endpoint", "create")
+                .tag("outcome", "failure").summary().totalAmount());
+        assertTrue(meterRegistry.find("organisation.requests.over-sql-budget").counters().isEmpty());
+    }
+}
@@ -0,0 +1,70 @@
+package com.group.iso.throttling;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OverloadExceptionHandlerTest {
+
+    @RestController
+    static class TimingOutController {
+        @GetMapping("/api/organisations")
+        String list() {
+            throw new CannotCreateTransactionException("Connection is not available, request timed out");
+        }
+
+        // the lazy data source of the replicas takes the connection at the first statement
+        @GetMapping("/api/organisations/{id}")
+        String get() {
+            throw new DataAccessResourceFailureException("could not prepare statement",
+                    new SQLTransientConnectionException("Connection is not available, request timed out"));
+        }
+
+        @GetMapping("/api/organisations/search")
+        String search() {
+            throw new DataAccessResourceFailureException("connection reset");
+        }
+    }
+
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TimingOutController())
+            .setControllerAdvice(new OverloadExceptionHandler(
+                    new ThrottlingProperties(true, 1, 2, Map.of(), "", 100, 5, Duration.ofMillis(1500)),
+                    new OrganisationMetrics(new SimpleMeterRegistry())))
+            .build();
+
+    @Test
+    void connectionUnavailable() throws Exception {
+        // execute / verify
+        mockMvc.perform(get("/api/organisations"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        mockMvc.perform(get("/api/organisations/{id}", 1))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void otherFailuresAreNotOverload() {
+        // execute / verify
+        ServletException exception = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/api/organisations/search")));
+        assertInstanceOf(DataAccessResourceFailureException.class, exception.getCause());
+    }
+}
@@ -0,0 +1,58 @@
+package com.group.iso.throttling;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The primary pool of a single connection, the lazy data source of the replicas takes it at the first statement.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:overload;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=250",
+        "organisation.replicas.urls=jdbc:h2:mem:overload;DB_CLOSE_DELAY=-1",
+        "organisation.throttling.overload-retry-after=2s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OverloadWithReplicasTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Test
+    void connectionUnavailableAtFirstStatement() throws Exception {
+        assertInstanceOf(LazyConnectionDataSourceProxy.class, dataSource);
+        // given the only connection of the primary is taken
+        try (Connection ignored = primaryDataSource.getConnection()) {
+            // execute / verify
+            mockMvc.perform(put("/api/organisations/{id}", 1)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"name\": \"Org A\"}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.group.iso.throttling;
+
+import com.group.iso.metrics.OrganisationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThrottlingInterceptorTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger awaitingConnections = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @SuppressWarnings("unused")
+    static class Handler {
+        void list() {
+        }
+
+        void export() {
+        }
+    }
+
+    @Test
+    void rateLimitedPerClient() throws Exception {
+        // given 1 token per second with a burst of 2
+        var interceptor = interceptor("");
+        // execute / verify
+        assertEquals(200, handle(interceptor, "10.0.0.1", null, "list").getStatus());
+        assertEquals(200, handle(interceptor, "10.0.0.1", null, "list").getStatus());
+        var rejected = handle(interceptor, "10.0.0.1", null, "list");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        // another client has its own bucket
+        assertEquals(200, handle(interceptor, "10.0.0.2", null, "list").getStatus());
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(200, handle(interceptor, "10.0.0.1", null, "list").getStatus());
+        assertEquals(1, meterRegistry.get("organisation.requests.rejected")
+                .tag("reason", "rate-limit").tag("endpoint", "list").counter().count());
+    }
+
+    @Test
+    void costPerEndpoint() throws Exception {
+        var interceptor = interceptor("");
+        assertEquals(200, handle(interceptor, "10.0.0.1", null, "export").getStatus());
+        var rejected = handle(interceptor, "10.0.0.1", null, "list");
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void apiKey() throws Exception {
+        var interceptor = interceptor("X-API-Key");
+        assertEquals(200, handle(interceptor, "10.0.0.1", "a", "export").getStatus());
+        assertEquals(429, handle(interceptor, "10.0.0.2", "a", "list").getStatus());
+        // the same address with another key is another client
+        assertEquals(200, handle(interceptor, "10.0.0.1", "b", "list").getStatus());
+    }
+
+    @Test
+    void shedUnderLoad() throws Exception {
+        var interceptor = interceptor("");
+        awaitingConnections.set(5);
+        var rejected = handle(interceptor, "10.0.0.1", null, "list");
+        assertEquals(503, rejected.getStatus());
+        assertEquals("3", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        awaitingConnections.set(4);
+        assertEquals(200, handle(interceptor, "10.0.0.1", null, "list").getStatus());
+    }
+
+    @Test
+    void shedWithoutRateLimits() throws Exception {
+        var interceptor = interceptor(false, "");
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, handle(interceptor, "10.0.0.1", null, "list").getStatus());
+        }
+        awaitingConnections.set(5);
+        assertEquals(503, handle(interceptor, "10.0.0.1", null, "list").getStatus());
+    }
+
+    private ThrottlingInterceptor interceptor(String apiKeyHeader) {
+        return interceptor(true, apiKeyHeader);
+    }
+
+    private ThrottlingInterceptor interceptor(boolean rateLimited, String apiKeyHeader) {
+        var properties = new ThrottlingProperties(rateLimited, 1, 2, Map.of("export", 2), apiKeyHeader, 100, 5,
+                Duration.ofSeconds(3));
+        return new ThrottlingInterceptor(properties, awaitingConnections::get,
+                new OrganisationMetrics(meterRegistry), now::get);
+    }
+
+    private static MockHttpServletResponse handle(ThrottlingInterceptor interceptor, String address, String apiKey,
+                                                  String endpoint) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/organisations");
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        var response = new MockHttpServletResponse();
+        var handler = new HandlerMethod(new Handler(), Handler.class.getDeclaredMethod(endpoint));
+        boolean proceed = interceptor.preHandle(request, response, handler);
+        assertEquals(proceed, response.getStatus() == 200);
+        return response;
+    }
+}
@@ -0,0 +1,46 @@
+package com.group.iso.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void burstThenRate() {
+        // given 10 tokens per second with a burst of 5
+        var bucket = new TokenBucket(10, 5, now::get);
+        // execute / verify
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(1));
+        }
+        assertEquals(100_000_000L, bucket.tryAcquire(1));
+        now.addAndGet(100_000_000L);
+        assertEquals(0, bucket.tryAcquire(1));
+        assertTrue(bucket.tryAcquire(1) > 0);
+    }
+
+    @Test
+    void refillsUpToBurst() {
+        var bucket = new TokenBucket(10, 5, now::get);
+        assertEquals(0, bucket.tryAcquire(5));
+        // idle for much longer than the refill takes
+        now.addAndGet(60_000_000_000L);
+        assertEquals(0, bucket.tryAcquire(5));
+        assertTrue(bucket.tryAcquire(1) > 0);
+    }
+
+    @Test
+    void cost() {
+        var bucket = new TokenBucket(10, 5, now::get);
+        assertEquals(0, bucket.tryAcquire(3));
+        assertEquals(100_000_000L, bucket.tryAcquire(3));
+        // costs above the burst take the whole burst instead of never fitting
+        now.addAndGet(1_000_000_000L);
+        assertEquals(0, bucket.tryAcquire(50));
+    }
+}